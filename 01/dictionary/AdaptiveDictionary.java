@@ -0,0 +1,216 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Dictionary that chooses its representation by size and workload.
+ * <p>
+ * Small dictionaries are kept as SortedArrayDictionary, large ones as OpenHashDictionary,
+ * and dictionaries with many ordered scans (iterations) as BinaryTreeDictionary.
+ * The operation mix is counted with exponential decay; every {@link #DECISION_INTERVAL} operations
+ * the representation is checked. The thresholds for entering and leaving a representation differ
+ * (hysteresis), and after a migration no new migration starts for {@link #COOLDOWN} operations,
+ * so the dictionary does not flap between representations.
+ * <p>
+ * Migration happens in the background of the normal operations: the keys are copied
+ * to the new representation in small steps, one step per operation.
+ * During the migration the old representation answers all lookups and writes go to both.
+ * The iterator always returns the entries ordered by key.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class AdaptiveDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
+
+    public enum Representation {SORTED_ARRAY, OPEN_HASH, BINARY_TREE}
+
+    static final int DECISION_INTERVAL = 1024;
+    static final int COOLDOWN = 8 * DECISION_INTERVAL;
+    static final int MIGRATION_STEP = 64;
+
+    // small: enter sorted array below SMALL_ENTER entries, leave above SMALL_LEAVE
+    static final int SMALL_ENTER = 256;
+    static final int SMALL_LEAVE = 1024;
+
+    // range heavy: enter tree above SCAN_ENTER share of ordered scans, leave below SCAN_LEAVE
+    static final double SCAN_ENTER = 0.01;
+    static final double SCAN_LEAVE = 0.002;
+
+    private Dictionary<K, V> current = new SortedArrayDictionary<>();
+    private Representation representation = Representation.SORTED_ARRAY;
+
+    // migration in progress: target, keys still to copy and position
+    private Dictionary<K, V> next = null;
+    private Representation nextRepresentation = null;
+    private Object[] pending = null;
+    private int migrated = 0;
+
+    // decayed operation counters
+    private double lookups = 0;
+    private double scans = 0;
+    private double mutations = 0;
+
+    private int opsSinceDecision = 0;
+    private int opsSinceMigration = COOLDOWN;
+    private int migrations = 0;
+
+    @Override
+    public V insert(K key, V value) {
+        V oldValue = current.insert(key, value);
+        if (next != null) {
+            next.insert(key, value);
+        }
+        mutations++;
+        afterOperation();
+        return oldValue;
+    }
+
+    @Override
+    public V search(K key) {
+        V value = current.search(key);
+        lookups++;
+        afterOperation();
+        return value;
+    }
+
+    @Override
+    public V remove(K key) {
+        V oldValue = current.remove(key);
+        if (next != null) {
+            next.remove(key);
+        }
+        mutations++;
+        afterOperation();
+        return oldValue;
+    }
+
+    @Override
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Returns the representation that currently answers the operations.
+     * @return current representation.
+     */
+    public Representation getRepresentation() {
+        return representation;
+    }
+
+    /**
+     * Returns the number of finished migrations.
+     * @return number of migrations.
+     */
+    public int getMigrations() {
+        return migrations;
+    }
+
+    private void afterOperation() {
+        // saturates, an int counting every operation would overflow and block all further migrations
+        if (opsSinceMigration < COOLDOWN) {
+            opsSinceMigration++;
+        }
+        if (next != null) {
+            migrateStep();
+        } else if (++opsSinceDecision >= DECISION_INTERVAL) {
+            opsSinceDecision = 0;
+            decide();
+            // decay, so that the mix follows the recent workload
+            lookups /= 2;
+            scans /= 2;
+            mutations /= 2;
+        }
+    }
+
+    private void decide() {
+        if (opsSinceMigration < COOLDOWN) {
+            return;
+        }
+        Representation target = choose();
+        if (target != representation) {
+            startMigration(target);
+        }
+    }
+
+    // target representation with hysteresis: each threshold depends on the current representation
+    private Representation choose() {
+        int size = current.size();
+        double total = lookups + scans + mutations;
+        double scanShare = total == 0 ? 0 : scans / total;
+
+        boolean small = representation == Representation.SORTED_ARRAY ? size <= SMALL_LEAVE : size < SMALL_ENTER;
+        if (small) {
+            return Representation.SORTED_ARRAY;
+        }
+        boolean rangeHeavy = representation == Representation.BINARY_TREE ? scanShare >= SCAN_LEAVE : scanShare > SCAN_ENTER;
+        return rangeHeavy ? Representation.BINARY_TREE : Representation.OPEN_HASH;
+    }
+
+    private void startMigration(Representation target) {
+        switch (target) {
+            case SORTED_ARRAY:
+                next = new SortedArrayDictionary<>();
+                break;
+            case OPEN_HASH:
+                next = new OpenHashDictionary<>(7);
+                break;
+            default:
+                next = new BinaryTreeDictionary<>();
+        }
+        nextRepresentation = target;
+
+        pending = new Object[current.size()];
+        int i = 0;
+        for (Entry<K, V> e : current) {
+            pending[i++] = e.getKey();
+        }
+        migrated = 0;
+        migrateStep();
+    }
+
+    // copies the next keys; writes during the migration already went to both representations
+    private void migrateStep() {
+        int end = Math.min(pending.length, migrated + MIGRATION_STEP);
+        for (; migrated < end; migrated++) {
+            K key = (K) pending[migrated];
+            V value = current.search(key);
+            if (value != null) {
+                next.insert(key, value);
+            }
+        }
+        if (migrated == pending.length) {
+            current = next;
+            representation = nextRepresentation;
+            next = null;
+            nextRepresentation = null;
+            pending = null;
+            opsSinceMigration = 0;
+            opsSinceDecision = 0;
+            migrations++;
+        }
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        scans++;
+        afterOperation();
+        if (representation != Representation.OPEN_HASH) {
+            return current.iterator();
+        }
+        // the hash table has no order: sort a copy
+        List<Entry<K, V>> entries = new ArrayList<>(current.size());
+        for (Entry<K, V> e : current) {
+            entries.add(e);
+        }
+        entries.sort((a, b) -> a.getKey().compareTo(b.getKey()));
+        return entries.iterator();
+    }
+
+    @Override
+    public String toString() {
+        return representation + "\n" + current;
+    }
+}
@@ -0,0 +1,193 @@
+package dictionary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * BK-tree over the keys of a dictionary for fuzzy lookup by Levenshtein distance.
+ * <p>
+ * Every child of a node is stored under its edit distance to the node's word.
+ * Because of the triangle inequality, a search with radius r only descends into children
+ * whose edge distance e satisfies |e - d| &lt;= r, where d is the distance of the query to the node.
+ * Together with a distance computation that stops as soon as the bound is exceeded,
+ * a query with small radius only visits a small part of the tree.
+ */
+public class BKTree {
+
+    private static class Node {
+        final String word;
+        Node[] children = null;  // indexed by edit distance
+        int maxEdge = 0;
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+
+    private Node root = null;
+    private int size = 0;
+
+    /**
+     * Builds a BK-tree over all keys of the dictionary.
+     * @param dict dictionary.
+     * @return BK-tree with the keys of dict.
+     */
+    public static BKTree of(Dictionary<String, ?> dict) {
+        BKTree tree = new BKTree();
+        for (Dictionary.Entry<String, ?> e : dict) {
+            tree.add(e.getKey());
+        }
+        return tree;
+    }
+
+    /**
+     * Adds a word to the tree.
+     * @param word word.
+     * @return true, if the word was not yet contained.
+     */
+    public boolean add(String word) {
+        if (word == null) {
+            throw new IllegalArgumentException("Word must not be null");
+        }
+        if (root == null) {
+            root = new Node(word);
+            size++;
+            return true;
+        }
+
+        int[] prev = new int[word.length() + 1];
+        int[] cur = new int[word.length() + 1];
+        Node node = root;
+        while (true) {
+            // the distance never exceeds the length of the longer word
+            int d = distance(word, node.word, Math.max(word.length(), node.word.length()), prev, cur);
+            if (d == 0) {
+                return false;
+            }
+            if (node.children == null) {
+                node.children = new Node[Math.max(8, d + 1)];
+            } else if (d >= node.children.length) {
+                node.children = Arrays.copyOf(node.children, Math.max(2 * node.children.length, d + 1));
+            }
+            if (node.children[d] == null) {
+                node.children[d] = new Node(word);
+                node.maxEdge = Math.max(node.maxEdge, d);
+                size++;
+                return true;
+            }
+            node = node.children[d];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the k nearest words with an edit distance of at most maxDistance,
+     * ordered by distance and then alphabetically.
+     * @param query query word.
+     * @param k maximal number of results.
+     * @param maxDistance maximal edit distance.
+     * @return nearest words.
+     */
+    public List<String> nearest(String query, int k, int maxDistance) {
+        if (query == null) {
+            throw new IllegalArgumentException("Query must not be null");
+        }
+        List<String> result = new ArrayList<>();
+        if (root == null || k <= 0 || maxDistance < 0) {
+            return result;
+        }
+
+        // max-heap of the best k matches, the worst on top
+        Comparator<Match> byDistance = Comparator.<Match>comparingInt(m -> m.distance).thenComparing(m -> m.word);
+        PriorityQueue<Match> best = new PriorityQueue<>(byDistance.reversed());
+        int[] prev = new int[query.length() + 1];
+        int[] cur = new int[query.length() + 1];
+
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            // radius shrinks as soon as k matches are found
+            int r = best.size() == k ? Math.min(maxDistance, best.peek().distance) : maxDistance;
+
+            // an exact distance is only needed up to r + maxEdge, beyond no child qualifies
+            int d = distance(query, node.word, r + node.maxEdge, prev, cur);
+            if (d <= r) {
+                best.add(new Match(node.word, d));
+                if (best.size() > k) {
+                    best.poll();
+                }
+                if (best.size() == k) {
+                    r = Math.min(maxDistance, best.peek().distance);
+                }
+            }
+            if (node.children != null) {
+                int from = Math.max(1, d - r);
+                int to = Math.min(node.maxEdge, d + r);
+                for (int e = from; e <= to; e++) {
+                    if (node.children[e] != null) {
+                        stack.push(node.children[e]);
+                    }
+                }
+            }
+        }
+
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(byDistance);
+        for (Match m : matches) {
+            result.add(m.word);
+        }
+        return result;
+    }
+
+    private static class Match {
+        final String word;
+        final int distance;
+
+        Match(String word, int distance) {
+            this.word = word;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * Levenshtein distance of a and b, computed row by row.
+     * Stops as soon as every entry of a row exceeds limit and then returns limit + 1.
+     * prev and cur are scratch rows of length a.length() + 1.
+     */
+    static int distance(String a, String b, int limit, int[] prev, int[] cur) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > limit) {
+            return limit + 1;
+        }
+        for (int i = 0; i <= n; i++) {
+            prev[i] = i;
+        }
+        for (int j = 1; j <= m; j++) {
+            char c = b.charAt(j - 1);
+            cur[0] = j;
+            int rowMin = cur[0];
+            for (int i = 1; i <= n; i++) {
+                int cost = a.charAt(i - 1) == c ? 0 : 1;
+                cur[i] = Math.min(Math.min(cur[i - 1] + 1, prev[i] + 1), prev[i - 1] + cost);
+                rowMin = Math.min(rowMin, cur[i]);
+            }
+            if (rowMin > limit) {
+                return limit + 1;
+            }
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return Math.min(prev[n], limit + 1);
+    }
+}
@@ -0,0 +1,118 @@
+package dictionary;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Dictionary with an inverse index, e.g. for german-&gt;english and english-&gt;german lookups.
+ * <p>
+ * The forward direction is an OpenHashDictionary (one value per key), the inverse direction a
+ * MultiHashDictionary from each value to all keys mapped to it. Both are updated on every insert
+ * and remove in O(1) expected time. Both directions reference the same key and value objects,
+ * so the strings are stored only once.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+public class BiDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
+
+    private final OpenHashDictionary<K, V> forward;
+    private final MultiHashDictionary<V, K> inverse;
+
+    public BiDictionary() {
+        this(8);
+    }
+
+    /**
+     * @param capacity expected number of entries.
+     */
+    public BiDictionary(int capacity) {
+        forward = new OpenHashDictionary<>(capacity);
+        inverse = new MultiHashDictionary<>(capacity, Hasher.defaultHasher());
+    }
+
+    @Override
+    public V insert(K key, V value) {
+        V oldValue = forward.insert(key, value);
+        if (oldValue != null) {
+            inverse.removeValue(oldValue, key);
+        }
+        inverse.add(value, key);
+        return oldValue;
+    }
+
+    @Override
+    public V search(K key) {
+        return forward.search(key);
+    }
+
+    @Override
+    public void searchAll(K[] keys, V[] out) {
+        forward.searchAll(keys, out);
+    }
+
+    /**
+     * Returns all keys mapped to value, in insertion order.
+     * The list is a view that is only valid until the next modification of this dictionary.
+     * @param value value.
+     * @return keys, empty list if no key is mapped to value.
+     */
+    public List<K> searchKeys(V value) {
+        return inverse.searchAll(value);
+    }
+
+    /**
+     * Returns the first key mapped to value.
+     * @param value value.
+     * @return key, or null if no key is mapped to value.
+     */
+    public K searchKey(V value) {
+        return inverse.search(value);
+    }
+
+    @Override
+    public V remove(K key) {
+        V oldValue = forward.remove(key);
+        if (oldValue != null) {
+            inverse.removeValue(oldValue, key);
+        }
+        return oldValue;
+    }
+
+    @Override
+    public int size() {
+        return forward.size();
+    }
+
+    /**
+     * Returns an iterator over copies of the entries: setValue on a returned entry would otherwise
+     * change the forward direction without updating the inverse index.
+     * Use {@link #insert} to change a value.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        Iterator<Entry<K, V>> it = forward.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                Entry<K, V> e = it.next();
+                return new Entry<>(e.getKey(), e.getValue());
+            }
+        };
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return forward.getStats();
+    }
+
+    @Override
+    public String toString() {
+        return forward.toString();
+    }
+}
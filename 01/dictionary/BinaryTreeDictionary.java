@@ -2,8 +2,16 @@
 // 22.09.2022
 package dictionary;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
 
 /**
  * Implementation of the Dictionary interface as AVL tree.
@@ -42,6 +50,103 @@ public class BinaryTreeDictionary<K extends Comparable<? super K>, V> implements
     private int size = 0;
     private V oldValue = null;
 
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("BinaryTreeDictionary", this::refreshStats);
+    private final DictionaryStats.Counter rotations = stats == null ? null : stats.counter("rotations");
+
+    // subtrees with more nodes are built in parallel by fromSorted
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * Builds a perfectly balanced tree from entries in strictly ascending key order in O(n),
+     * without comparisons and rotations. The entries are copied into new nodes,
+     * e.g. the iterator of a SortedArrayDictionary can be passed directly.
+     * Large inputs are built in parallel (divide and conquer on the common ForkJoinPool).
+     *
+     * @param entries entries ordered by key.
+     * @param <K> Key.
+     * @param <V> Value.
+     * @return new dictionary with the entries.
+     * @throws IllegalArgumentException if a key or value is null or the keys are not strictly ascending.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K extends Comparable<? super K>, V> BinaryTreeDictionary<K, V> fromSorted(Iterator<? extends Entry<K, V>> entries) {
+        ArrayList<K> keys = new ArrayList<>();
+        ArrayList<V> values = new ArrayList<>();
+        while (entries.hasNext()) {
+            Entry<K, V> e = entries.next();
+            if (e.getKey() == null || e.getValue() == null) {
+                throw new IllegalArgumentException("Key and value must not be null");
+            }
+            if (!keys.isEmpty() && keys.get(keys.size() - 1).compareTo(e.getKey()) >= 0) {
+                throw new IllegalArgumentException("Keys not in ascending order: " + e.getKey());
+            }
+            keys.add(e.getKey());
+            values.add(e.getValue());
+        }
+
+        K[] k = (K[]) keys.toArray(new Comparable<?>[0]);
+        V[] v = (V[]) values.toArray();
+        BinaryTreeDictionary<K, V> dict = new BinaryTreeDictionary<>();
+        if (k.length > PARALLEL_THRESHOLD) {
+            dict.root = ForkJoinPool.commonPool().invoke(new BuildTask<>(k, v, 0, k.length));
+        } else {
+            dict.root = buildR(k, v, 0, k.length);
+        }
+        dict.size = k.length;
+        return dict;
+    }
+
+    // builds the subtree of k[lo, hi): the middle entry is the root, so the heights differ by at most 1
+    private static <K, V> Node<K, V> buildR(K[] k, V[] v, int lo, int hi) {
+        if (lo >= hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        return link(new Node<>(k[mid], v[mid]), buildR(k, v, lo, mid), buildR(k, v, mid + 1, hi));
+    }
+
+    private static <K, V> Node<K, V> link(Node<K, V> node, Node<K, V> left, Node<K, V> right) {
+        node.left = left;
+        node.right = right;
+        if (left != null) {
+            left.parent = node;
+        }
+        if (right != null) {
+            right.parent = node;
+        }
+        node.height = Math.max(left == null ? -1 : left.height, right == null ? -1 : right.height) + 1;
+        return node;
+    }
+
+    // ForkJoinTask is Serializable, the build tasks are never serialized
+    @SuppressWarnings("serial")
+    private static class BuildTask<K, V> extends RecursiveTask<Node<K, V>> {
+        private final K[] k;
+        private final V[] v;
+        private final int lo;
+        private final int hi;
+
+        BuildTask(K[] k, V[] v, int lo, int hi) {
+            this.k = k;
+            this.v = v;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected Node<K, V> compute() {
+            if (hi - lo <= PARALLEL_THRESHOLD) {
+                return buildR(k, v, lo, hi);
+            }
+            int mid = (lo + hi) >>> 1;
+            BuildTask<K, V> left = new BuildTask<>(k, v, lo, mid);
+            left.fork();
+            Node<K, V> right = new BuildTask<>(k, v, mid + 1, hi).compute();
+            return link(new Node<>(k[mid], v[mid]), left.join(), right);
+        }
+    }
+
     // Helper class for removeMin simulation, not directly related to AVL balancing
     private static class MinEntry<K, V> {
         K key;
@@ -121,6 +226,7 @@ public class BinaryTreeDictionary<K extends Comparable<? super K>, V> implements
     }
 
     private Node<K, V> rotateRight(Node<K, V> p) {
+        if (DictionaryStats.ENABLED) rotations.add(1);
         assert p.left != null;
         Node<K, V> x = p.left;
         Node<K, V> t2 = x.right; // Subtree T2
@@ -151,6 +257,7 @@ public class BinaryTreeDictionary<K extends Comparable<? super K>, V> implements
     }
 
     private Node<K, V> rotateLeft(Node<K, V> p) {
+        if (DictionaryStats.ENABLED) rotations.add(1);
         assert p.right != null;
         Node<K, V> x = p.right;
         Node<K, V> t2 = x.left; // Subtree T2
@@ -359,6 +466,28 @@ public class BinaryTreeDictionary<K extends Comparable<? super K>, V> implements
         return size;
     }
 
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
+
+    // recomputes tree height and the depth distribution of all nodes
+    private void refreshStats() {
+        stats.counter("height").set(getHeight(root));
+        DictionaryStats.Histogram depths = stats.histogram("node depth");
+        depths.clear();
+        recordDepthsR(root, 0, depths);
+    }
+
+    private void recordDepthsR(Node<K, V> node, int depth, DictionaryStats.Histogram depths) {
+        if (node == null) {
+            return;
+        }
+        depths.record(depth);
+        recordDepthsR(node.left, depth + 1, depths);
+        recordDepthsR(node.right, depth + 1, depths);
+    }
+
     // --- prettyPrint method converted to toString  ---
 
     @Override
@@ -441,4 +570,87 @@ public class BinaryTreeDictionary<K extends Comparable<? super K>, V> implements
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Splits by subtree: a part consists of one node followed by a whole subtree.
+     * Splitting the subtree S gives the prefix (node, S.left) and leaves (S, S.right),
+     * so both halves are again of this form and keep the key order.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return new SubtreeSpliterator(null, root, size, true);
+    }
+
+    private final class SubtreeSpliterator implements Spliterator<Entry<K, V>> {
+        // first node of this part (may be null), followed by all nodes of subtree
+        private Node<K, V> first;
+        private Node<K, V> subtree;
+        // in-order traversal of subtree, created by the first advance; no split afterwards
+        private Deque<Node<K, V>> stack = null;
+        private long estimate;
+        // estimate is the exact size, only until the first split
+        private boolean exact;
+
+        SubtreeSpliterator(Node<K, V> first, Node<K, V> subtree, long estimate, boolean exact) {
+            this.first = first;
+            this.subtree = subtree;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            if (stack != null || subtree == null || (subtree.left == null && first == null)) {
+                return null;
+            }
+            // the AVL tree is balanced: both sides hold about half of the nodes
+            exact = false;
+            estimate >>>= 1;
+            SubtreeSpliterator prefix = new SubtreeSpliterator(first, subtree.left, estimate, false);
+            first = subtree;
+            subtree = subtree.right;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            if (stack == null) {
+                stack = new ArrayDeque<>();
+                pushLeft(subtree);
+            }
+            Node<K, V> p;
+            if (first != null) {
+                p = first;
+                first = null;
+            } else if (!stack.isEmpty()) {
+                p = stack.pop();
+                pushLeft(p.right);
+            } else {
+                return false;
+            }
+            action.accept(new Entry<>(p.key, p.value));
+            return true;
+        }
+
+        private void pushLeft(Node<K, V> p) {
+            for (; p != null; p = p.left) {
+                stack.push(p);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED | DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+
+        @Override
+        public Comparator<? super Entry<K, V>> getComparator() {
+            return (a, b) -> a.getKey().compareTo(b.getKey());
+        }
+    }
+}
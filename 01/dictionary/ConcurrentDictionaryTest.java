@@ -0,0 +1,186 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded stress test for ConcurrentOpenHashDictionary.
+ * <p>
+ * Every round starts with the smallest table, so insert, remove and search run while
+ * the table is migrated to larger tables by the same threads.
+ * The final contents and size() are checked against reference maps; a failed check throws an AssertionError.
+ */
+public class ConcurrentDictionaryTest {
+
+    private static final int THREADS = 8;
+
+    /**
+     * @param args optional number of rounds (default 20).
+     */
+    public static void main(String[] args) throws Exception {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        for (int r = 0; r < rounds; r++) {
+            testDisjointKeys(r, 100_000);
+            testSharedKeys(r, 100_000);
+        }
+        System.out.println(rounds + " rounds ok");
+    }
+
+    /**
+     * Every thread works on its own keys with a random mix of insert, remove and search
+     * and keeps a reference map of what its keys must map to.
+     */
+    private static void testDisjointKeys(long seed, int opsPerThread) throws Exception {
+        ConcurrentOpenHashDictionary<Integer, Integer> dict = new ConcurrentOpenHashDictionary<>(8);
+        List<Map<Integer, Integer>> refs = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            refs.add(new HashMap<>());
+        }
+
+        runThreads(t -> {
+            Random rnd = new Random(seed * THREADS + t);
+            Map<Integer, Integer> ref = refs.get(t);
+            for (int i = 0; i < opsPerThread; i++) {
+                // keys of thread t: k % THREADS == t
+                int key = rnd.nextInt(opsPerThread / 2) * THREADS + t;
+                int op = rnd.nextInt(10);
+                if (op < 5) {
+                    int value = rnd.nextInt();
+                    check(same(dict.insert(key, value), ref.put(key, value)), "insert " + key);
+                } else if (op < 7) {
+                    check(same(dict.remove(key), ref.remove(key)), "remove " + key);
+                } else {
+                    check(same(dict.search(key), ref.get(key)), "search " + key);
+                }
+            }
+        });
+
+        int expected = 0;
+        for (Map<Integer, Integer> ref : refs) {
+            expected += ref.size();
+            for (Map.Entry<Integer, Integer> e : ref.entrySet()) {
+                check(same(dict.search(e.getKey()), e.getValue()), "final search " + e.getKey());
+            }
+        }
+        check(dict.size() == expected, "size " + dict.size() + ", expected " + expected);
+
+        int n = 0;
+        for (Dictionary.Entry<Integer, Integer> e : dict) {
+            Integer value = refs.get(e.getKey() % THREADS).get(e.getKey());
+            check(same(e.getValue(), value), "iterator " + e.getKey());
+            n++;
+        }
+        check(n == expected, "iterated " + n + ", expected " + expected);
+    }
+
+    /**
+     * All threads insert the same keys in different orders while searching them,
+     * then all threads remove the even keys concurrently: every key must be removed exactly once.
+     */
+    private static void testSharedKeys(long seed, int n) throws Exception {
+        ConcurrentOpenHashDictionary<Integer, Integer> dict = new ConcurrentOpenHashDictionary<>(8);
+
+        runThreads(t -> {
+            Random rnd = new Random(seed * THREADS + t);
+            int[] keys = shuffled(n, rnd);
+            for (int key : keys) {
+                dict.insert(key, -key);
+                check(same(dict.search(key), -key), "search after insert " + key);
+                int other = keys[rnd.nextInt(n)];
+                Integer v = dict.search(other);
+                check(v == null || v == -other, "search " + other);
+            }
+        });
+        check(dict.size() == n, "size " + dict.size() + ", expected " + n);
+        for (int key = 0; key < n; key++) {
+            check(same(dict.search(key), -key), "final search " + key);
+        }
+
+        AtomicInteger removed = new AtomicInteger();
+        runThreads(t -> {
+            Random rnd = new Random(seed * THREADS + t + 1000);
+            for (int key : shuffled(n, rnd)) {
+                if (key % 2 == 0) {
+                    if (dict.remove(key) != null) {
+                        removed.incrementAndGet();
+                    }
+                } else {
+                    check(same(dict.search(key), -key), "search odd " + key);
+                }
+            }
+        });
+        check(removed.get() == (n + 1) / 2, "removed " + removed.get() + ", expected " + (n + 1) / 2);
+        check(dict.size() == n / 2, "size " + dict.size() + ", expected " + n / 2);
+
+        Set<Integer> seen = new HashSet<>();
+        for (Dictionary.Entry<Integer, Integer> e : dict) {
+            check(e.getKey() % 2 == 1 && e.getValue() == -e.getKey(), "iterator " + e.getKey());
+            check(seen.add(e.getKey()), "iterator duplicate " + e.getKey());
+        }
+        check(seen.size() == n / 2, "iterated " + seen.size() + ", expected " + n / 2);
+    }
+
+    private interface Worker {
+        void run(int thread) throws Exception;
+    }
+
+    // runs worker on THREADS threads that start together and rethrows the first failure
+    private static void runThreads(Worker worker) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        Throwable[] failure = new Throwable[THREADS];
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    worker.run(thread);
+                } catch (Throwable e) {
+                    failure[thread] = e;
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        for (Throwable e : failure) {
+            if (e instanceof Exception) {
+                throw (Exception) e;
+            } else if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    private static int[] shuffled(int n, Random rnd) {
+        int[] a = new int[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = rnd.nextInt(i + 1);
+            int tmp = a[i];
+            a[i] = a[j];
+            a[j] = tmp;
+        }
+        return a;
+    }
+
+    private static boolean same(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
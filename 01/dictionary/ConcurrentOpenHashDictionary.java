@@ -0,0 +1,457 @@
+package dictionary;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free hash dictionary with open addressing, after Cliff Click's non-blocking hash map.
+ * <p>
+ * The table uses the layout of OpenHashDictionary: power of two size, {@link Hasher}, triangular probing
+ * (see {@link HashTables}). Keys and values are stored in one array (key at 2i, value at 2i+1)
+ * and every slot is only changed by compare-and-set through a VarHandle, so search, insert and remove
+ * never block.
+ * <p>
+ * Every slot is a small state machine, all transitions are single CAS steps:
+ * <pre>
+ * key:   null -&gt; K                  (claimed by an insert, never changes again)
+ *        null -&gt; TOMBSTONE          (killed by the migration, no key can land here any more)
+ * value: null/V/TOMBSTONE -&gt; V/TOMBSTONE        (insert, update, remove)
+ *        null/V/TOMBSTONE -&gt; Prime(V) -&gt; TOMBPRIME  (migration)
+ * </pre>
+ * A removed entry keeps its key and gets the value TOMBSTONE; keys are never deleted, so the probe
+ * sequences stay intact without deleted-key markers, and removed keys are dropped by the next resize.
+ * <p>
+ * A full table (too many claimed keys or too long probe sequences) gets a larger successor table.
+ * The migration is cooperative: every thread that meets a table under migration first copies a
+ * chunk of slots, and a slot that an operation needs is copied immediately. A copied value is boxed
+ * in a Prime in the old table, which tells readers and writers to continue in the new table.
+ * The last copied slot promotes the new table to the top.
+ * <p>
+ * The iterator is weakly consistent: it returns the keys of the table at the time of its creation
+ * with their current values.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class ConcurrentOpenHashDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final VarHandle TABLE;
+    private static final VarHandle NEXT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TABLE = lookup.findVarHandle(ConcurrentOpenHashDictionary.class, "table", Table.class);
+            NEXT = lookup.findVarHandle(Table.class, "next", Table.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final Object TOMBSTONE = new Object();
+    private static final Prime TOMBPRIME = new Prime(TOMBSTONE);
+
+    // expected value of an ordinary insert/remove: replaces any value
+    private static final Object NO_MATCH_OLD = new Object();
+
+    private static final int REPROBE_LIMIT = 10;
+    private static final int MIN_COPY_WORK = 1024;
+
+    // a value that was copied (or is being copied) to the next table
+    private static final class Prime {
+        final Object value;
+
+        Prime(Object value) {
+            this.value = value;
+        }
+    }
+
+    private static final class Table {
+        final Object[] kvs;
+        final int length;
+        final int mask;
+        // claimed key slots (live, removed and killed)
+        final AtomicInteger slots = new AtomicInteger();
+        // migration: next table, chunks handed out, slots copied
+        volatile Table next;
+        final AtomicLong copyIndex = new AtomicLong();
+        final AtomicLong copyDone = new AtomicLong();
+
+        Table(int length) {
+            this.kvs = new Object[2 * length];
+            this.length = length;
+            this.mask = length - 1;
+        }
+
+        Object key(int index) {
+            return SLOT.getVolatile(kvs, 2 * index);
+        }
+
+        Object value(int index) {
+            return SLOT.getVolatile(kvs, 2 * index + 1);
+        }
+
+        boolean casKey(int index, Object expected, Object key) {
+            return SLOT.compareAndSet(kvs, 2 * index, expected, key);
+        }
+
+        boolean casValue(int index, Object expected, Object value) {
+            return SLOT.compareAndSet(kvs, 2 * index + 1, expected, value);
+        }
+
+        int reprobeLimit() {
+            return REPROBE_LIMIT + (length >> 2);
+        }
+
+        // too many claimed slots: probe sequences get long
+        boolean isFull(int reprobes) {
+            int claimed = slots.get();
+            return (reprobes >= REPROBE_LIMIT && claimed >= reprobeLimit()) || claimed >= length - (length >> 2);
+        }
+    }
+
+    private volatile Table table;
+    private final LongAdder size = new LongAdder();
+    private final Hasher<? super K> hasher;
+
+    public ConcurrentOpenHashDictionary() {
+        this(16);
+    }
+
+    public ConcurrentOpenHashDictionary(int capacity) {
+        this(capacity, Hasher.defaultHasher());
+    }
+
+    /**
+     * @param capacity initial capacity, rounded up to a power of two.
+     * @param hasher hash function for the keys.
+     */
+    public ConcurrentOpenHashDictionary(int capacity, Hasher<? super K> hasher) {
+        this.table = new Table(HashTables.tableSizeFor(Math.max(capacity, 8)));
+        this.hasher = hasher;
+    }
+
+    private static boolean keyEquals(Object k, Object key) {
+        return k == key || (k != TOMBSTONE && key.equals(k));
+    }
+
+    @Override
+    public V search(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        Object v = get(table, key, hasher.hash(key));
+        return v == TOMBSTONE ? null : (V) v;
+    }
+
+    private Object get(Table t, Object key, int hash) {
+        int index = hash & t.mask;
+        int reprobes = 0;
+        while (true) {
+            Object k = t.key(index);
+            Object v = t.value(index);
+            if (k == null) {
+                return null;
+            }
+            // read after the value: if the value was not primed, it was current at the time it was read
+            Table next = t.next;
+            if (keyEquals(k, key)) {
+                if (!(v instanceof Prime)) {
+                    return v;
+                }
+                return get(copySlotAndCheck(t, index, true), key, hash);
+            }
+            reprobes++;
+            if (reprobes >= t.reprobeLimit() || k == TOMBSTONE) {
+                return next == null ? null : get(helpCopy(next), key, hash);
+            }
+            index = HashTables.nextProbe(index, reprobes, t.mask);
+        }
+    }
+
+    @Override
+    public V insert(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        Object old = putIfMatch(table, key, value, NO_MATCH_OLD);
+        return old == TOMBSTONE ? null : (V) old;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        Object old = putIfMatch(table, key, TOMBSTONE, NO_MATCH_OLD);
+        return old == TOMBSTONE ? null : (V) old;
+    }
+
+    /**
+     * Sets the value of key in table t.
+     * expected is NO_MATCH_OLD for insert/remove, or null for the migration,
+     * which only fills a slot that has no value yet.
+     * Returns the previous value (null or TOMBSTONE if there was none).
+     */
+    private Object putIfMatch(Table t, Object key, Object putValue, Object expected) {
+        int hash = hasher.hash((K) key);
+        int index = hash & t.mask;
+        int reprobes = 0;
+        Object k;
+        Object v;
+
+        // find or claim the key slot
+        while (true) {
+            k = t.key(index);
+            v = t.value(index);
+            if (k == null) {
+                if (putValue == TOMBSTONE) {
+                    // removing a key that is not contained
+                    return null;
+                }
+                if (t.casKey(index, null, key)) {
+                    t.slots.incrementAndGet();
+                    break;
+                }
+                k = t.key(index);
+            }
+            if (keyEquals(k, key)) {
+                break;
+            }
+            reprobes++;
+            if (reprobes >= t.reprobeLimit() || k == TOMBSTONE) {
+                Table next = resize(t);
+                if (expected != null) {
+                    helpCopy(next);
+                }
+                return putIfMatch(next, key, putValue, expected);
+            }
+            index = HashTables.nextProbe(index, reprobes, t.mask);
+        }
+
+        if (putValue == v) {
+            return v;
+        }
+
+        // a table under migration, or too full for a new key: continue in the next table
+        Table next = t.next;
+        if (next == null && ((v == null && t.isFull(reprobes)) || v instanceof Prime)) {
+            next = resize(t);
+        }
+        if (next != null) {
+            return putIfMatch(copySlotAndCheck(t, index, expected != null), key, putValue, expected);
+        }
+
+        while (true) {
+            if (expected == null && v != null) {
+                // migration: the slot already got a newer value
+                return v;
+            }
+            if (t.casValue(index, v, putValue)) {
+                if (expected != null) {
+                    boolean wasLive = v != null && v != TOMBSTONE;
+                    boolean isLive = putValue != TOMBSTONE;
+                    if (!wasLive && isLive) {
+                        size.increment();
+                    } else if (wasLive && !isLive) {
+                        size.decrement();
+                    }
+                }
+                return v;
+            }
+            v = t.value(index);
+            if (v instanceof Prime) {
+                return putIfMatch(copySlotAndCheck(t, index, expected != null), key, putValue, expected);
+            }
+        }
+    }
+
+    // starts the migration of t, returns the next table
+    private Table resize(Table t) {
+        Table next = t.next;
+        if (next != null) {
+            return next;
+        }
+        long live = size.sum();
+        int newLength = t.length;
+        if (live >= t.length >> 2) {
+            newLength = t.length << 1;
+        }
+        if (live >= t.length >> 1) {
+            newLength = t.length << 2;
+        }
+        // keys and values share one array of twice the table length
+        newLength = Math.min(newLength, HashTables.MAX_CAPACITY >> 1);
+        Table created = new Table(newLength);
+        if (NEXT.compareAndSet(t, null, created)) {
+            return created;
+        }
+        return t.next;
+    }
+
+    // copies slot index of t to the next table and returns the table to continue in
+    private Table copySlotAndCheck(Table t, int index, boolean help) {
+        Table next = t.next;
+        if (copySlot(t, index, next)) {
+            copyCheckAndPromote(t, next, 1);
+        }
+        return help ? helpCopy(next) : next;
+    }
+
+    // helps the migration of the top table by one chunk, returns the given table
+    private Table helpCopy(Table helper) {
+        Table top = table;
+        if (top.next != null) {
+            copyChunks(top, false);
+        }
+        return helper;
+    }
+
+    /**
+     * Copies chunks of slots of t to its next table: one chunk, or all remaining chunks if copyAll
+     * or if all chunks were handed out but the copy is not finished yet (a slow thread must not block the others).
+     */
+    private void copyChunks(Table t, boolean copyAll) {
+        Table next = t.next;
+        int oldLength = t.length;
+        int work = Math.min(oldLength, MIN_COPY_WORK);
+        boolean panic = false;
+        long copyIndex = 0;
+        while (t.copyDone.get() < oldLength) {
+            if (!panic) {
+                copyIndex = t.copyIndex.get();
+                while (copyIndex < 2L * oldLength && !t.copyIndex.compareAndSet(copyIndex, copyIndex + work)) {
+                    copyIndex = t.copyIndex.get();
+                }
+                if (copyIndex >= 2L * oldLength) {
+                    panic = true;
+                }
+            }
+            int done = 0;
+            for (int i = 0; i < work; i++) {
+                if (copySlot(t, (int) ((copyIndex + i) & (oldLength - 1)), next)) {
+                    done++;
+                }
+            }
+            if (done > 0) {
+                copyCheckAndPromote(t, next, done);
+            }
+            copyIndex += work;
+            if (!copyAll && !panic) {
+                return;
+            }
+        }
+        copyCheckAndPromote(t, next, 0);
+    }
+
+    /**
+     * Copies one slot. Returns true if this call completed the slot, so every slot is counted once.
+     */
+    private boolean copySlot(Table t, int index, Table next) {
+        // a free key slot is killed, so no new key can appear in the old table
+        Object key;
+        while ((key = t.key(index)) == null) {
+            t.casKey(index, null, TOMBSTONE);
+        }
+
+        // box the value, so no new value can appear in the old table
+        Object v = t.value(index);
+        while (!(v instanceof Prime)) {
+            Prime box = (v == null || v == TOMBSTONE) ? TOMBPRIME : new Prime(v);
+            if (t.casValue(index, v, box)) {
+                if (box == TOMBPRIME) {
+                    // nothing to copy
+                    return true;
+                }
+                v = box;
+                break;
+            }
+            v = t.value(index);
+        }
+        if (v == TOMBPRIME) {
+            return false;
+        }
+
+        // copy into the next table, unless it already has a newer value
+        Object boxed = ((Prime) v).value;
+        boolean copied = putIfMatch(next, key, boxed, null) == null;
+
+        while (v != TOMBPRIME && !t.casValue(index, v, TOMBPRIME)) {
+            v = t.value(index);
+        }
+        return copied;
+    }
+
+    // counts copied slots; when all slots of t are copied, the next table replaces t as top table
+    private void copyCheckAndPromote(Table t, Table next, int workDone) {
+        long done = workDone > 0 ? t.copyDone.addAndGet(workDone) : t.copyDone.get();
+        if (done == t.length && table == t) {
+            TABLE.compareAndSet(this, t, next);
+        }
+    }
+
+    @Override
+    public int size() {
+        long s = size.sum();
+        return s < 0 ? 0 : (int) Math.min(s, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        Table t = table;
+        return new Iterator<>() {
+            private int index = 0;
+            private Entry<K, V> next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && index < t.length) {
+                    Object k = t.key(index++);
+                    if (k != null && k != TOMBSTONE) {
+                        V v = search((K) k);
+                        if (v != null) {
+                            next = new Entry<>((K) k, v);
+                        }
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Entry<K, V> e = next;
+                next = null;
+                return e;
+            }
+        };
+    }
+
+    /**
+     * The size changes concurrently, so the spliterator does not report SIZED.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return Spliterators.spliteratorUnknownSize(iterator(), Spliterator.CONCURRENT | Spliterator.DISTINCT | Spliterator.NONNULL);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<K, V> e : this) {
+            sb.append(e.getKey()).append(" -> ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -4,6 +4,10 @@
 package dictionary;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Collection of entries.
@@ -33,6 +37,24 @@ public interface Dictionary<K,V> extends Iterable<Dictionary.Entry<K,V>> {
 	 */
 	V search(K key);
 
+	/**
+	 * Looks up several keys at once.
+	 * out[i] is set to the value to which keys[i] is mapped, or null if there is no mapping for keys[i].
+	 * Implementations may overlap the memory accesses of the independent lookups;
+	 * the default simply calls search for each key.
+	 * @param keys the keys whose associated values are to be returned.
+	 * @param out array for the values, at least as long as keys.
+	 * @throws IllegalArgumentException if out is shorter than keys.
+	 */
+	default void searchAll(K[] keys, V[] out) {
+		if (out.length < keys.length) {
+			throw new IllegalArgumentException("Output array too short");
+		}
+		for (int i = 0; i < keys.length; i++) {
+			out[i] = search(keys[i]);
+		}
+	}
+
 	/**
 	 * Removes the key-vaue-pair associated with the key.
      * Returns the value to which the key was previously associated,
@@ -56,7 +78,44 @@ public interface Dictionary<K,V> extends Iterable<Dictionary.Entry<K,V>> {
 	 */
 	@Override
 	public Iterator<Entry<K, V>> iterator();
-	
+
+	/**
+	 * Returns a spliterator over the entries in this dictionary.
+	 * The default is based on the iterator and splits off batches of entries;
+	 * implementations split along their own structure.
+	 * @return a Spliterator over the entries in this dictionary
+	 */
+	@Override
+	default Spliterator<Entry<K, V>> spliterator() {
+		return Spliterators.spliterator(iterator(), size(), Spliterator.NONNULL);
+	}
+
+	/**
+	 * Returns a sequential stream over the entries in this dictionary.
+	 * @return a Stream over the entries in this dictionary
+	 */
+	default Stream<Entry<K, V>> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+
+	/**
+	 * Returns a parallel stream over the entries in this dictionary.
+	 * The dictionary must not be modified while the stream is processed.
+	 * @return a parallel Stream over the entries in this dictionary
+	 */
+	default Stream<Entry<K, V>> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+
+	/**
+	 * Returns the runtime statistics of this dictionary.
+	 * Statistics are only collected if the JVM is started with -Ddictionary.stats=true.
+	 * @return statistics, or null if statistics are switched off or not supported by this dictionary.
+	 */
+	default DictionaryStats getStats() {
+		return null;
+	}
+
 	/**
 	 * A dictionary entry (key-value pair).
 	 * @param <K> Key (must be immutable).
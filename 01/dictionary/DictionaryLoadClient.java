@@ -0,0 +1,129 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load generator for the DictionaryServer over loopback.
+ * <p>
+ * Every connection runs in its own virtual thread and keeps up to depth requests in flight.
+ * 90% of the requests are searches for german words of the file, 10% inserts.
+ * Prints throughput and latency percentiles (latency = time from sending a request to reading its response).
+ */
+public class DictionaryLoadClient {
+
+    /**
+     * @param args [port [connections [requests per connection [pipeline depth [filename]]]]],
+     *             default 0 16 100000 16 01/dictionary/dtengl.txt.
+     *             Port 0 starts a server (OHD, filled with the file) in this JVM.
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+        int connections = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        String filename = args.length > 4 ? args[4] : "01/dictionary/dtengl.txt";
+
+        List<String> words = readWords(filename);
+        if (words.isEmpty()) {
+            System.out.println("No words in " + filename);
+            return;
+        }
+
+        DictionaryServer server = null;
+        if (port == 0) {
+            Dictionary<String, String> dictionary = new StripedDictionary<>(64, () -> DictionaryServer.newDictionary("OHD"));
+            TUI.read("r " + filename, dictionary);
+            server = new DictionaryServer(dictionary, 0);
+            port = server.getPort();
+            Thread.ofVirtual().start(server::serve);
+        }
+
+        try {
+            long start = System.nanoTime();
+            LatencyRecorder total = run(port, words, connections, requests, depth);
+            long elapsed = System.nanoTime() - start;
+            System.out.println(connections + " connections, pipeline depth " + depth);
+            System.out.println(total.report(elapsed));
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+        }
+    }
+
+    /**
+     * Runs the load and returns the merged latencies of all connections.
+     */
+    static LatencyRecorder run(int port, List<String> words, int connections, int requests, int depth) throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<LatencyRecorder>> results = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                long seed = c;
+                results.add(executor.submit(() -> connection(port, words, requests, depth, seed)));
+            }
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> f : results) {
+                total.merge(f.get());
+            }
+            return total;
+        }
+    }
+
+    private static LatencyRecorder connection(int port, List<String> words, int requests, int depth, long seed) throws IOException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        Random rnd = new Random(seed);
+        long[] sendTime = new long[requests];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            int sent = 0;
+            int received = 0;
+            while (received < requests) {
+                // fill the pipeline
+                while (sent < requests && sent - received < depth) {
+                    String word = words.get(rnd.nextInt(words.size()));
+                    out.write(rnd.nextInt(10) == 0 ? "i " + word + " " + word : "s " + word);
+                    out.write('\n');
+                    sendTime[sent++] = System.nanoTime();
+                }
+                out.flush();
+
+                // responses arrive in request order
+                if (in.readLine() == null) {
+                    throw new IOException("Connection closed by server");
+                }
+                recorder.record(System.nanoTime() - sendTime[received++]);
+            }
+        }
+        return recorder;
+    }
+
+    private static List<String> readWords(String filename) throws IOException {
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length == 2) {
+                    words.add(parts[0]);
+                }
+            }
+        }
+        return words;
+    }
+}
@@ -0,0 +1,35 @@
+package dictionary;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for the resize of a dictionary.
+ * Only emitted if statistics are switched on (see {@link DictionaryStats}).
+ */
+@Name("dictionary.Resize")
+@Label("Dictionary Resize")
+@Category("Dictionary")
+@Description("Resize of the table or array of a dictionary")
+class DictionaryResizeEvent extends Event {
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Size")
+    int size;
+
+    @Label("Resize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long resizeTime;
+}
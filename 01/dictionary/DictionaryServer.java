@@ -0,0 +1,203 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lookup server for a dictionary on a local TCP socket.
+ * <p>
+ * Every connection is served by its own virtual thread. The protocol is line based and uses the
+ * commands of the TUI:
+ * <pre>
+ * s deutsch            search       -&gt;  VALUE englisch | NONE
+ * i deutsch englisch   insert       -&gt;  VALUE old      | NONE
+ * d deutsch            delete       -&gt;  VALUE old      | NONE
+ * size                 size         -&gt;  SIZE n
+ * dump                 all entries  -&gt;  ENTRY deutsch englisch (one line per entry), END
+ * anything else                     -&gt;  ERROR message
+ * </pre>
+ * Requests may be pipelined: responses are written in request order and only flushed
+ * when no further request is buffered. The entries of dump are written to the socket while
+ * the dictionary is iterated, the response is never built in memory.
+ */
+public class DictionaryServer implements AutoCloseable {
+
+    private final Dictionary<String, String> dictionary;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Binds the server to the loopback interface.
+     * @param dictionary thread-safe dictionary, e.g. a StripedDictionary.
+     * @param port port, 0 selects a free port.
+     * @throws IOException if the port can not be bound.
+     */
+    public DictionaryServer(Dictionary<String, String> dictionary, int port) throws IOException {
+        this.dictionary = dictionary;
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until the server is closed.
+     */
+    public void serve() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                executor.submit(() -> handleConnection(socket));
+            }
+        } catch (IOException e) {
+            if (!serverSocket.isClosed()) {
+                System.out.println("Error accepting connection: " + e.getMessage());
+            }
+        }
+    }
+
+    private void handleConnection(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.equals("dump")) {
+                    dump(out);
+                } else {
+                    out.write(handle(line));
+                    out.write('\n');
+                }
+                // pipelined requests are answered in one write
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        } catch (SocketException e) {
+            // connection reset by the client
+        } catch (IOException e) {
+            System.out.println("Error on connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the response of the dump command.
+     * @param out connection.
+     * @throws IOException if the connection fails.
+     */
+    void dump(Writer out) throws IOException {
+        for (Dictionary.Entry<String, String> e : dictionary) {
+            out.write("ENTRY ");
+            out.write(e.getKey());
+            out.write(' ');
+            out.write(e.getValue());
+            out.write('\n');
+        }
+        out.write("END\n");
+    }
+
+    /**
+     * Executes one request line, except dump (see {@link #dump}).
+     * @param line request.
+     * @return response line (without line separator).
+     */
+    String handle(String line) {
+        String[] parts = line.split(" ");
+        switch (parts[0]) {
+            case "s":
+                if (parts.length != 2) {
+                    return "ERROR Invalid search command";
+                }
+                return reply(dictionary.search(parts[1]));
+            case "i":
+                if (parts.length != 3) {
+                    return "ERROR Invalid insert command";
+                }
+                return reply(dictionary.insert(parts[1], parts[2]));
+            case "d":
+                if (parts.length != 2) {
+                    return "ERROR Invalid delete command";
+                }
+                return reply(dictionary.remove(parts[1]));
+            case "size":
+                return "SIZE " + dictionary.size();
+            default:
+                return "ERROR Unknown command";
+        }
+    }
+
+    private static String reply(String value) {
+        return value == null ? "NONE" : "VALUE " + value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Creates an empty dictionary with the short or long name of the TUI create command.
+     * @param type implementation.
+     * @return empty dictionary.
+     */
+    static Dictionary<String, String> newDictionary(String type) {
+        switch (type) {
+            case "SAD":
+            case "SortedArrayDictionary":
+                return new SortedArrayDictionary<>();
+            case "LHD":
+            case "LinkedHashDictionary":
+                return new LinkedHashDictionary<>(7);
+            case "OHD":
+            case "OpenHashDictionary":
+                return new OpenHashDictionary<>(7);
+            case "BTD":
+            case "BinaryTreeDictionary":
+                return new BinaryTreeDictionary<>();
+            case "AD":
+            case "AdaptiveDictionary":
+                return new AdaptiveDictionary<>();
+            case "SPL":
+            case "SplayTreeDictionary":
+                return new SplayTreeDictionary<>();
+            case "COH":
+            case "ConcurrentOpenHashDictionary":
+                return new ConcurrentOpenHashDictionary<>();
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + type);
+        }
+    }
+
+    /**
+     * Starts the server.
+     * @param args [port [implementation [filename]]], default 4711 OHD without file.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 4711;
+        String type = args.length > 1 ? args[1] : "OHD";
+
+        Dictionary<String, String> dictionary = new StripedDictionary<>(64, () -> newDictionary(type));
+        if (args.length > 2) {
+            TUI.read("r " + args[2], dictionary);
+        }
+
+        try (DictionaryServer server = new DictionaryServer(dictionary, port)) {
+            System.out.println("Dictionary server (" + type + ") listening on port " + server.getPort());
+            server.serve();
+        }
+    }
+}
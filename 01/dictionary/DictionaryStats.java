@@ -0,0 +1,279 @@
+package dictionary;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Runtime statistics of a single dictionary.
+ * <p>
+ * Statistics are opt-in: they are only collected if the JVM is started with {@code -Ddictionary.stats=true}.
+ * The implementations guard every hot-path update with the constant {@link #ENABLED},
+ * so the JIT removes the instrumentation completely when statistics are switched off.
+ * <p>
+ * Every implementation reports resize count and duration; the implementation specific
+ * values are kept as named histograms and counters (e.g. "probe length" for OpenHashDictionary).
+ * Resizes are additionally emitted as {@link DictionaryResizeEvent}, and the resize statistics of all
+ * live dictionaries are emitted periodically as {@link DictionaryStatsEvent} when a JFR recording is running.
+ * <p>
+ * Like the dictionaries themselves, the statistics are not thread-safe: counters and histograms
+ * may only be read by the thread that uses the dictionary.
+ */
+public class DictionaryStats {
+
+    public static final boolean ENABLED = Boolean.getBoolean("dictionary.stats");
+
+    // all live statistics, for the periodic JFR event
+    private static final Set<DictionaryStats> live = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    static {
+        if (ENABLED) {
+            FlightRecorder.addPeriodicEvent(DictionaryStatsEvent.class, DictionaryStats::emitPeriodic);
+        }
+    }
+
+    private final String implementation;
+    private final Runnable refresh;
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+
+    // written only by the owner thread, volatile for the JFR recorder thread
+    private volatile long resizeCount = 0;
+    private volatile long resizeNanos = 0;
+
+    private DictionaryStats(String implementation, Runnable refresh) {
+        this.implementation = implementation;
+        this.refresh = refresh;
+    }
+
+    /**
+     * Creates the statistics for a dictionary, or returns null if statistics are switched off.
+     * @param implementation name of the implementation.
+     * @param refresh recomputes the structural statistics (e.g. chain lengths) from the dictionary, may be null.
+     * @return statistics or null.
+     */
+    static DictionaryStats create(String implementation, Runnable refresh) {
+        if (!ENABLED) {
+            return null;
+        }
+        DictionaryStats stats = new DictionaryStats(implementation, refresh);
+        live.add(stats);
+        return stats;
+    }
+
+    /**
+     * Returns the histogram with the given name, it is created if not yet present.
+     */
+    Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /**
+     * Returns the counter with the given name, it is created if not yet present.
+     */
+    Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Records a finished resize.
+     * @param startNanos System.nanoTime() at the start of the resize.
+     * @param oldCapacity capacity before the resize.
+     * @param newCapacity capacity after the resize.
+     * @param size number of entries.
+     */
+    void recordResize(long startNanos, int oldCapacity, int newCapacity, int size) {
+        long nanos = System.nanoTime() - startNanos;
+        resizeCount++;
+        resizeNanos += nanos;
+
+        DictionaryResizeEvent event = new DictionaryResizeEvent();
+        if (event.shouldCommit()) {
+            event.implementation = implementation;
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.size = size;
+            event.resizeTime = nanos;
+            event.commit();
+        }
+    }
+
+    public String getImplementation() {
+        return implementation;
+    }
+
+    public long getResizeCount() {
+        return resizeCount;
+    }
+
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    /**
+     * Returns the histogram with the given name.
+     * Structural histograms are recomputed from the dictionary by this call.
+     * @param name name of the histogram.
+     * @return histogram or null, if this dictionary has no histogram with this name.
+     */
+    public Histogram getHistogram(String name) {
+        refresh();
+        return histograms.get(name);
+    }
+
+    /**
+     * Returns the value of the counter with the given name, or 0 if it does not exist.
+     * @param name name of the counter.
+     * @return value of the counter.
+     */
+    public long getCounter(String name) {
+        refresh();
+        Counter c = counters.get(name);
+        return c == null ? 0 : c.value;
+    }
+
+    /**
+     * Resets all histograms, counters and the resize statistics.
+     */
+    public void reset() {
+        for (Histogram h : histograms.values()) {
+            h.clear();
+        }
+        for (Counter c : counters.values()) {
+            c.value = 0;
+        }
+        resizeCount = 0;
+        resizeNanos = 0;
+    }
+
+    private void refresh() {
+        if (refresh != null) {
+            refresh.run();
+        }
+    }
+
+    @Override
+    public String toString() {
+        refresh();
+        return summary("\n");
+    }
+
+    private String summary(String separator) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(implementation).append(separator);
+        sb.append("resizes: ").append(resizeCount)
+                .append(" (").append(resizeNanos / 1000).append(" microseconds)");
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+            sb.append(separator).append(e.getKey()).append(": ").append(e.getValue().value);
+        }
+        for (Map.Entry<String, Histogram> e : histograms.entrySet()) {
+            sb.append(separator).append(e.getKey()).append(": ").append(e.getValue());
+        }
+        return sb.toString();
+    }
+
+    // Runs on the JFR recorder thread: only the volatile resize fields are read. The counter and
+    // histogram maps are created lazily and updated by the owner thread without synchronization.
+    private static void emitPeriodic() {
+        DictionaryStats[] all;
+        synchronized (live) {
+            all = live.toArray(new DictionaryStats[0]);
+        }
+        for (DictionaryStats s : all) {
+            DictionaryStatsEvent event = new DictionaryStatsEvent();
+            event.implementation = s.implementation;
+            event.resizeCount = s.resizeCount;
+            event.resizeTime = s.resizeNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     * Simple event counter.
+     */
+    static class Counter {
+        private long value;
+
+        void add(long n) {
+            value += n;
+        }
+
+        void set(long n) {
+            value = n;
+        }
+    }
+
+    /**
+     * Histogram over small non-negative integers.
+     * Values greater or equal than the number of buckets are counted in the last bucket.
+     */
+    public static class Histogram {
+        private static final int BUCKETS = 64;
+
+        private final long[] counts = new long[BUCKETS];
+        private long count;
+        private long sum;
+        private int max;
+
+        void record(int value) {
+            counts[Math.min(value, BUCKETS - 1)]++;
+            count++;
+            sum += value;
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        void clear() {
+            java.util.Arrays.fill(counts, 0);
+            count = 0;
+            sum = 0;
+            max = 0;
+        }
+
+        /**
+         * Returns how often value was recorded (the last bucket collects all greater values).
+         * @param value recorded value.
+         * @return number of recordings.
+         */
+        public long getCount(int value) {
+            return value < 0 || value >= BUCKETS ? 0 : counts[value];
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        public int getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("n=").append(count)
+                    .append(" mean=").append(String.format("%.2f", getMean()))
+                    .append(" max=").append(max)
+                    .append(" [");
+            int last = BUCKETS - 1;
+            while (last > 0 && counts[last] == 0) {
+                last--;
+            }
+            for (int i = 0; i <= last; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(i).append(i == BUCKETS - 1 ? "+" : "").append(":").append(counts[i]);
+            }
+            return sb.append("]").toString();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package dictionary;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic JFR event with the resize statistics of every live dictionary.
+ * Only emitted if statistics are switched on (see {@link DictionaryStats}).
+ */
+@Name("dictionary.Statistics")
+@Label("Dictionary Statistics")
+@Category("Dictionary")
+@Description("Resize statistics of a dictionary")
+@Period("1 s")
+class DictionaryStatsEvent extends Event {
+
+    @Label("Implementation")
+    String implementation;
+
+    @Label("Resize Count")
+    long resizeCount;
+
+    @Label("Resize Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long resizeTime;
+}
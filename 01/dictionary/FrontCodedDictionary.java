@@ -0,0 +1,372 @@
+package dictionary;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Read-mostly dictionary with String keys, stored front-coded in a single byte array.
+ * <p>
+ * Keys are kept sorted by their UTF-8 bytes (this is the code point order, which differs from
+ * String.compareTo only for characters outside the Basic Multilingual Plane).
+ * Every block of 16 keys starts with the full key (varint length, bytes),
+ * the following keys are stored as varint shared-prefix length, varint suffix length and suffix bytes.
+ * Search does a binary search over the block heads and decodes at most one block.
+ * <p>
+ * Insert and remove re-encode the keys from the affected block on, so they cost O(n)
+ * like the element shifting in SortedArrayDictionary.
+ *
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class FrontCodedDictionary<V> implements Dictionary<String, V> {
+
+    private static final int BLOCK = 16;
+
+    private byte[] data = new byte[64];
+    private int dataLength = 0;
+
+    // start of each block in data
+    private int[] blocks = new int[4];
+    private int blockCount = 0;
+
+    private Object[] values = new Object[BLOCK];
+    private int size = 0;
+
+    private int maxKeyLength = 0;
+
+    public FrontCodedDictionary() {
+    }
+
+    /**
+     * Builds a front-coded copy of the given dictionary in one pass.
+     * @param dict dictionary, e.g. a SortedArrayDictionary.
+     * @param <V> Value.
+     * @return front-coded dictionary with the same entries.
+     */
+    public static <V> FrontCodedDictionary<V> of(Dictionary<String, V> dict) {
+        List<byte[]> keys = new ArrayList<>();
+        List<V> vals = new ArrayList<>();
+        for (Entry<String, V> e : dict) {
+            keys.add(e.getKey().getBytes(StandardCharsets.UTF_8));
+            vals.add(e.getValue());
+        }
+
+        Integer[] order = new Integer[keys.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(keys.get(a), keys.get(b)));
+
+        FrontCodedDictionary<V> fcd = new FrontCodedDictionary<>();
+        byte[][] sorted = new byte[order.length][];
+        fcd.values = new Object[Math.max(BLOCK, order.length)];
+        for (int i = 0; i < order.length; i++) {
+            sorted[i] = keys.get(order[i]);
+            fcd.values[i] = vals.get(order[i]);
+        }
+        fcd.size = sorted.length;
+        fcd.encodeTail(0, sorted, sorted.length);
+        return fcd;
+    }
+
+    // --- encoding ---
+
+    private void ensureData(int n) {
+        if (dataLength + n > data.length) {
+            data = Arrays.copyOf(data, Math.max(2 * data.length, dataLength + n));
+        }
+    }
+
+    private void writeVarint(int v) {
+        ensureData(5);
+        while ((v & ~0x7f) != 0) {
+            data[dataLength++] = (byte) ((v & 0x7f) | 0x80);
+            v >>>= 7;
+        }
+        data[dataLength++] = (byte) v;
+    }
+
+    private void writeBytes(byte[] b, int from, int length) {
+        ensureData(length);
+        System.arraycopy(b, from, data, dataLength, length);
+        dataLength += length;
+    }
+
+    // re-encodes the keys of block fromBlock and all following blocks, keys[0] is the head of fromBlock
+    private void encodeTail(int fromBlock, byte[][] keys, int n) {
+        dataLength = fromBlock < blockCount ? blocks[fromBlock] : dataLength;
+        blockCount = fromBlock;
+        byte[] prev = null;
+        for (int i = 0; i < n; i++) {
+            byte[] k = keys[i];
+            maxKeyLength = Math.max(maxKeyLength, k.length);
+            if (i % BLOCK == 0) {
+                if (blockCount == blocks.length) {
+                    blocks = Arrays.copyOf(blocks, 2 * blocks.length);
+                }
+                blocks[blockCount++] = dataLength;
+                writeVarint(k.length);
+                writeBytes(k, 0, k.length);
+            } else {
+                int p = Arrays.mismatch(prev, k);
+                if (p < 0) {
+                    p = k.length; // equal keys do not occur
+                }
+                writeVarint(p);
+                writeVarint(k.length - p);
+                writeBytes(k, p, k.length - p);
+            }
+            prev = k;
+        }
+    }
+
+    // --- decoding ---
+
+    /**
+     * Cursor decoding one block. The current key is in buf[0, length).
+     */
+    private final class BlockCursor {
+        byte[] buf = new byte[Math.max(16, maxKeyLength)];
+        int length;
+        int pos;      // position in data
+        int index;    // index of the current key
+        int end;      // index after the last key of the block
+
+        void start(int block) {
+            pos = blocks[block];
+            index = block * BLOCK;
+            end = Math.min(size, index + BLOCK);
+            length = readVarint();
+            read(0, length);
+        }
+
+        boolean next() {
+            if (index + 1 >= end) {
+                return false;
+            }
+            index++;
+            int prefix = readVarint();
+            int suffix = readVarint();
+            length = prefix + suffix;
+            read(prefix, suffix);
+            return true;
+        }
+
+        private void read(int at, int n) {
+            if (at + n > buf.length) {
+                buf = Arrays.copyOf(buf, at + n);
+            }
+            System.arraycopy(data, pos, buf, at, n);
+            pos += n;
+        }
+
+        private int readVarint() {
+            int v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                v |= (b & 0x7f) << shift;
+                shift += 7;
+            } while (b < 0);
+            return v;
+        }
+
+        byte[] key() {
+            return Arrays.copyOf(buf, length);
+        }
+    }
+
+    // decodes all keys from block fromBlock on
+    private byte[][] decodeTail(int fromBlock, int extra) {
+        int first = fromBlock * BLOCK;
+        byte[][] keys = new byte[size - first + extra][];
+        BlockCursor c = new BlockCursor();
+        int i = 0;
+        for (int b = fromBlock; b < blockCount; b++) {
+            c.start(b);
+            do {
+                keys[i++] = c.key();
+            } while (c.next());
+        }
+        return keys;
+    }
+
+    // compares the head key of block b with key
+    private int compareHead(int b, byte[] key) {
+        int pos = blocks[b];
+        int length = 0;
+        int shift = 0;
+        byte x;
+        do {
+            x = data[pos++];
+            length |= (x & 0x7f) << shift;
+            shift += 7;
+        } while (x < 0);
+        return Arrays.compareUnsigned(data, pos, pos + length, key, 0, key.length);
+    }
+
+    // index of key, or -(insertion point) - 1
+    private int find(byte[] key) {
+        if (size == 0) {
+            return -1;
+        }
+
+        // last block whose head is <= key
+        int low = 0;
+        int high = blockCount - 1;
+        int block = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comp = compareHead(mid, key);
+            if (comp < 0) {
+                block = mid;
+                low = mid + 1;
+            } else if (comp > 0) {
+                high = mid - 1;
+            } else {
+                return mid * BLOCK;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+
+        BlockCursor c = new BlockCursor();
+        c.start(block);
+        while (c.next()) {
+            int comp = Arrays.compareUnsigned(c.buf, 0, c.length, key, 0, key.length);
+            if (comp == 0) {
+                return c.index;
+            } else if (comp > 0) {
+                return -c.index - 1;
+            }
+        }
+        return -c.end - 1;
+    }
+
+    // --- Dictionary ---
+
+    @Override
+    public V insert(String key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int i = find(k);
+        if (i >= 0) {
+            V oldValue = (V) values[i];
+            values[i] = value;
+            return oldValue;
+        }
+
+        i = -i - 1;
+        int block = i / BLOCK;
+        byte[][] keys = decodeTail(block, 1);
+        int j = i - block * BLOCK;
+        System.arraycopy(keys, j, keys, j + 1, keys.length - 1 - j);
+        keys[j] = k;
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+        System.arraycopy(values, i, values, i + 1, size - i);
+        values[i] = value;
+        size++;
+
+        encodeTail(block, keys, keys.length);
+        return null;
+    }
+
+    @Override
+    public V search(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int i = find(key.getBytes(StandardCharsets.UTF_8));
+        return i >= 0 ? (V) values[i] : null;
+    }
+
+    @Override
+    public V remove(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int i = find(key.getBytes(StandardCharsets.UTF_8));
+        if (i < 0) {
+            return null;
+        }
+
+        int block = i / BLOCK;
+        byte[][] keys = decodeTail(block, 0);
+        int j = i - block * BLOCK;
+        System.arraycopy(keys, j + 1, keys, j, keys.length - 1 - j);
+
+        V value = (V) values[i];
+        System.arraycopy(values, i + 1, values, i, size - 1 - i);
+        values[--size] = null;
+
+        encodeTail(block, keys, keys.length - 1);
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes of the encoded keys, block index and value references
+     * (value objects not included, references counted with 4 bytes).
+     * @return used bytes.
+     */
+    public long bytesUsed() {
+        return dataLength + 4L * blockCount + 4L * size;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<String, V> e : this) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public Iterator<Entry<String, V>> iterator() {
+        return new Iterator<>() {
+            private final BlockCursor c = new BlockCursor();
+            private int block = 0;
+            private boolean started = false;
+            private boolean ready = false;
+
+            @Override
+            public boolean hasNext() {
+                if (!ready) {
+                    if (started && c.next()) {
+                        ready = true;
+                    } else if (block < blockCount) {
+                        c.start(block++);
+                        started = true;
+                        ready = true;
+                    }
+                }
+                return ready;
+            }
+
+            @Override
+            public Entry<String, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return new Entry<>(new String(c.buf, 0, c.length, StandardCharsets.UTF_8), (V) values[c.index]);
+            }
+        };
+    }
+}
@@ -0,0 +1,44 @@
+package dictionary;
+
+/**
+ * Table sizing and probing shared by the open addressing dictionaries.
+ * <p>
+ * Tables have a power of two size, the index of a hash is hash &amp; (length - 1).
+ * Collisions are resolved by triangular probing: the j-th probe is home + j(j+1)/2,
+ * computed incrementally as index = (index + j) &amp; mask.
+ * For power of two sizes this sequence visits every slot exactly once in the first length probes.
+ */
+final class HashTables {
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private HashTables() {
+    }
+
+    /**
+     * Returns the smallest power of two &gt;= capacity (at least 2).
+     * @param capacity requested capacity.
+     * @return table size.
+     */
+    static int tableSizeFor(int capacity) {
+        if (capacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        int n = 2;
+        while (n < capacity) {
+            n <<= 1;
+        }
+        return n;
+    }
+
+    /**
+     * Returns the next index of the probe sequence.
+     * @param index index of probe j - 1.
+     * @param j number of the probe, starting with 1.
+     * @param mask table length - 1.
+     * @return index of probe j.
+     */
+    static int nextProbe(int index, int j, int mask) {
+        return (index + j) & mask;
+    }
+}
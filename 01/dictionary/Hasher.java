@@ -0,0 +1,107 @@
+package dictionary;
+
+import java.security.SecureRandom;
+
+/**
+ * Hash function strategy for the hash dictionaries.
+ * <p>
+ * The hash dictionaries use tables with a power of two size and take the low bits of the hash
+ * as index, so the hash must spread the information of all bits of the key into the low bits.
+ * The default hasher therefore applies a murmur3 finalizer to hashCode().
+ * <p>
+ * A {@link #seeded()} hasher additionally depends on a secret random seed. For Strings (CharSequences)
+ * it hashes the characters itself, so keys that collide on String.hashCode do not collide,
+ * and an attacker who does not know the seed can not construct colliding keys (hash flooding).
+ *
+ * @param <K> Key.
+ */
+@FunctionalInterface
+public interface Hasher<K> {
+
+    /**
+     * Returns the hash of a key, all 32 bits are used.
+     * @param key key, not null.
+     * @return hash.
+     */
+    int hash(K key);
+
+    /**
+     * Returns the default hasher: hashCode() followed by a murmur3 finalizer.
+     * @param <K> Key.
+     * @return default hasher.
+     */
+    static <K> Hasher<K> defaultHasher() {
+        return key -> mix(key.hashCode());
+    }
+
+    /**
+     * Returns a hasher with a random seed.
+     * @param <K> Key.
+     * @return seeded hasher.
+     */
+    static <K> Hasher<K> seeded() {
+        return seeded(new SecureRandom().nextLong());
+    }
+
+    /**
+     * Returns a hasher with the given seed.
+     * CharSequences are hashed character by character (four characters per 64 bit step),
+     * all other keys by mixing hashCode() with the seed.
+     * @param seed seed.
+     * @param <K> Key.
+     * @return seeded hasher.
+     */
+    static <K> Hasher<K> seeded(long seed) {
+        return key -> {
+            if (key instanceof CharSequence) {
+                return hashChars((CharSequence) key, seed);
+            }
+            return (int) mix64(key.hashCode() ^ seed);
+        };
+    }
+
+    /**
+     * murmur3 32 bit finalizer.
+     * @param h hash value.
+     * @return mixed hash value.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /**
+     * murmur3 64 bit finalizer.
+     * @param h hash value.
+     * @return mixed hash value.
+     */
+    static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static int hashChars(CharSequence s, long seed) {
+        int n = s.length();
+        long h = seed ^ (n * 0x9e3779b97f4a7c15L);
+        int i = 0;
+        for (; i + 4 <= n; i += 4) {
+            long w = s.charAt(i) | (long) s.charAt(i + 1) << 16 | (long) s.charAt(i + 2) << 32 | (long) s.charAt(i + 3) << 48;
+            h = (h ^ w) * 0xbf58476d1ce4e5b9L;
+            h ^= h >>> 29;
+        }
+        long w = 0;
+        for (int shift = 0; i < n; i++, shift += 16) {
+            w |= (long) s.charAt(i) << shift;
+        }
+        h = (h ^ w) * 0x94d049bb133111ebL;
+        return (int) mix64(h);
+    }
+}
@@ -0,0 +1,125 @@
+package dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Hash dictionary with primitive int keys, without boxing and without Entry objects.
+ * <p>
+ * Open addressing with the hashing and probing of OpenHashDictionary
+ * ({@link Hasher#mix(int)}, power of two table, triangular probing, see {@link HashTables}).
+ * Keys are stored in an int[], values in a parallel Object[], the state of each slot
+ * (free, full, deleted) in a byte[].
+ *
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class IntDictionary<V> extends IntHashTable {
+
+    /**
+     * Receives the entries of {@link #forEach}.
+     * @param <V> Value.
+     */
+    @FunctionalInterface
+    public interface IntObjConsumer<V> {
+        void accept(int key, V value);
+    }
+
+    private Object[] values;
+
+    public IntDictionary() {
+        this(8);
+    }
+
+    /**
+     * @param capacity expected number of keys.
+     */
+    public IntDictionary(int capacity) {
+        super(capacity);
+        values = new Object[keys.length];
+    }
+
+    @Override
+    Object newValues(int length) {
+        Object[] oldValues = values;
+        values = new Object[length];
+        return oldValues;
+    }
+
+    @Override
+    void moveValue(Object oldValues, int from, int to) {
+        values[to] = ((Object[]) oldValues)[from];
+    }
+
+    /**
+     * Associates value with key.
+     * @param key key.
+     * @param value value, not null.
+     * @return previous value, or null.
+     */
+    public V insert(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null");
+        }
+        int slot = find(key);
+        if (slot != -1) {
+            V oldValue = (V) values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+        // add may replace the value array, so it is called before values is read
+        slot = add(key);
+        values[slot] = value;
+        return null;
+    }
+
+    /**
+     * Returns the value of key.
+     * @param key key.
+     * @return value, or null if key is not contained.
+     */
+    public V search(int key) {
+        int slot = find(key);
+        return slot == -1 ? null : (V) values[slot];
+    }
+
+    /**
+     * Removes key.
+     * @param key key.
+     * @return previous value, or null.
+     */
+    public V remove(int key) {
+        int slot = find(key);
+        if (slot == -1) {
+            return null;
+        }
+        V oldValue = (V) values[slot];
+        values[slot] = null;
+        delete(slot);
+        return oldValue;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        Arrays.fill(values, null);
+    }
+
+    /**
+     * Calls action for every entry, in table order.
+     * @param action receives key and value.
+     */
+    public void forEach(IntObjConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == FULL) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        forEach((k, v) -> sb.append(k).append(" -> ").append(v).append("\n"));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,149 @@
+package dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Hash table over primitive int keys, the common part of {@link IntDictionary} and {@link IntIntDictionary}.
+ * <p>
+ * Open addressing with the hashing and probing of OpenHashDictionary
+ * ({@link Hasher#mix(int)}, power of two table, triangular probing, see {@link HashTables}).
+ * Keys are stored in an int[], the state of each slot (free, full, deleted) in a byte[].
+ * The subclasses keep the values in a parallel array and move them in {@link #moveValue} when the table grows.
+ */
+abstract class IntHashTable {
+
+    static final byte FREE = 0;
+    static final byte FULL = 1;
+    static final byte DELETED = 2;
+
+    int[] keys;
+    byte[] states;
+    private int mask;
+    private int size = 0;
+    // full and deleted slots
+    private int used = 0;
+
+    /**
+     * @param capacity expected number of keys.
+     */
+    IntHashTable(int capacity) {
+        allocate(HashTables.tableSizeFor(capacity + capacity / 2 + 1));
+    }
+
+    private void allocate(int length) {
+        keys = new int[length];
+        states = new byte[length];
+        mask = length - 1;
+    }
+
+    /**
+     * Replaces the value array by a new one of the given length.
+     * @param length new table length.
+     * @return old value array.
+     */
+    abstract Object newValues(int length);
+
+    /**
+     * Copies a value from the old value array into the current one.
+     * @param oldValues value array returned by {@link #newValues}.
+     * @param from slot in the old table.
+     * @param to slot in the current table.
+     */
+    abstract void moveValue(Object oldValues, int from, int to);
+
+    // slot of key, or -1
+    final int find(int key) {
+        int index = Hasher.mix(key) & mask;
+        for (int j = 1; states[index] != FREE; j++) {
+            if (states[index] == FULL && keys[index] == key) {
+                return index;
+            }
+            if (j > mask) {
+                break;
+            }
+            index = HashTables.nextProbe(index, j, mask);
+        }
+        return -1;
+    }
+
+    /**
+     * Adds a key that is not contained, the table grows if necessary.
+     * @param key key.
+     * @return slot of the key, the caller stores the value there.
+     */
+    final int add(int key) {
+        if (used + 1 > (keys.length >> 1) + (keys.length >> 2)) {
+            rehash(size + 1);
+        }
+        int index = Hasher.mix(key) & mask;
+        for (int j = 1; states[index] == FULL; j++) {
+            index = HashTables.nextProbe(index, j, mask);
+        }
+        if (states[index] == FREE) {
+            used++;
+        }
+        states[index] = FULL;
+        keys[index] = key;
+        size++;
+        return index;
+    }
+
+    /**
+     * Marks a slot returned by {@link #find} as deleted.
+     * @param slot slot of the key.
+     */
+    final void delete(int slot) {
+        states[slot] = DELETED;
+        size--;
+    }
+
+    // new table for at least minKeys keys, drops the deleted slots
+    private void rehash(int minKeys) {
+        int[] oldKeys = keys;
+        byte[] oldStates = states;
+        int length = HashTables.tableSizeFor(Math.max(2 * minKeys, 8));
+        allocate(length);
+        Object oldValues = newValues(length);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStates[i] == FULL) {
+                int index = Hasher.mix(oldKeys[i]) & mask;
+                for (int j = 1; states[index] != FREE; j++) {
+                    index = HashTables.nextProbe(index, j, mask);
+                }
+                states[index] = FULL;
+                keys[index] = oldKeys[i];
+                moveValue(oldValues, i, index);
+            }
+        }
+        used = size;
+    }
+
+    public boolean containsKey(int key) {
+        return find(key) != -1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(states, FREE);
+        size = 0;
+        used = 0;
+    }
+
+    /**
+     * Returns all keys, in table order.
+     * @return keys.
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int n = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == FULL) {
+                result[n++] = keys[i];
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,110 @@
+package dictionary;
+
+/**
+ * Hash dictionary with primitive int keys and int values, e.g. from station numbers to indexes.
+ * <p>
+ * Same table as {@link IntDictionary}, with the values in an int[]. As values can not be null,
+ * a missing key is reported by a noValue chosen at construction (default -1).
+ */
+public class IntIntDictionary extends IntHashTable {
+
+    /**
+     * Receives the entries of {@link #forEach}.
+     */
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    private final int noValue;
+    private int[] values;
+
+    public IntIntDictionary() {
+        this(8, -1);
+    }
+
+    /**
+     * @param capacity expected number of keys.
+     * @param noValue value returned for missing keys.
+     */
+    public IntIntDictionary(int capacity, int noValue) {
+        super(capacity);
+        this.noValue = noValue;
+        values = new int[keys.length];
+    }
+
+    @Override
+    Object newValues(int length) {
+        int[] oldValues = values;
+        values = new int[length];
+        return oldValues;
+    }
+
+    @Override
+    void moveValue(Object oldValues, int from, int to) {
+        values[to] = ((int[]) oldValues)[from];
+    }
+
+    /**
+     * Associates value with key.
+     * @param key key.
+     * @param value value.
+     * @return previous value, or noValue.
+     */
+    public int insert(int key, int value) {
+        int slot = find(key);
+        if (slot != -1) {
+            int oldValue = values[slot];
+            values[slot] = value;
+            return oldValue;
+        }
+        // add may replace the value array, so it is called before values is read
+        slot = add(key);
+        values[slot] = value;
+        return noValue;
+    }
+
+    /**
+     * Returns the value of key.
+     * @param key key.
+     * @return value, or noValue if key is not contained.
+     */
+    public int search(int key) {
+        int slot = find(key);
+        return slot == -1 ? noValue : values[slot];
+    }
+
+    /**
+     * Removes key.
+     * @param key key.
+     * @return previous value, or noValue.
+     */
+    public int remove(int key) {
+        int slot = find(key);
+        if (slot == -1) {
+            return noValue;
+        }
+        int oldValue = values[slot];
+        delete(slot);
+        return oldValue;
+    }
+
+    /**
+     * Calls action for every entry, in table order.
+     * @param action receives key and value.
+     */
+    public void forEach(IntIntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (states[i] == FULL) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        forEach((k, v) -> sb.append(k).append(" -> ").append(v).append("\n"));
+        return sb.toString();
+    }
+}
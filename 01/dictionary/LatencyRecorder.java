@@ -0,0 +1,66 @@
+package dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Records latencies in nanoseconds and reports throughput and percentiles.
+ * All values are kept, so the percentiles are exact. Not thread-safe, use one recorder
+ * per thread and merge them at the end.
+ */
+public class LatencyRecorder {
+
+    private long[] values = new long[1024];
+    private int count = 0;
+    private boolean sorted = true;
+
+    public void record(long nanos) {
+        if (count == values.length) {
+            values = Arrays.copyOf(values, 2 * values.length);
+        }
+        values[count++] = nanos;
+        sorted = false;
+    }
+
+    /**
+     * Adds all values of another recorder.
+     * @param other recorder.
+     */
+    public void merge(LatencyRecorder other) {
+        for (int i = 0; i < other.count; i++) {
+            record(other.values[i]);
+        }
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of all values lie.
+     * @param p fraction between 0 and 1, e.g. 0.99.
+     * @return percentile in nanoseconds, 0 if nothing was recorded.
+     */
+    public long percentile(double p) {
+        if (count == 0) {
+            return 0;
+        }
+        if (!sorted) {
+            Arrays.sort(values, 0, count);
+            sorted = true;
+        }
+        int i = (int) Math.ceil(p * count) - 1;
+        return values[Math.max(0, Math.min(count - 1, i))];
+    }
+
+    /**
+     * Returns a report with throughput and the usual percentiles.
+     * @param elapsedNanos wall clock time of the run.
+     * @return report.
+     */
+    public String report(long elapsedNanos) {
+        return String.format("%d ops in %d ms, %.0f ops/s%n", count, elapsedNanos / 1_000_000, count * 1e9 / elapsedNanos)
+                + String.format("latency [us]: p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f",
+                percentile(0.5) / 1e3, percentile(0.9) / 1e3, percentile(0.99) / 1e3,
+                percentile(0.999) / 1e3, percentile(1.0) / 1e3);
+    }
+}
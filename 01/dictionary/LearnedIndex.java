@@ -0,0 +1,175 @@
+package dictionary;
+
+import java.util.Arrays;
+
+/**
+ * Learned index for a sorted array of String (CharSequence) keys.
+ * <p>
+ * Every key is projected to a number: its first four chars as unsigned 64 bit value
+ * (missing chars count as 0), which preserves the order of String.compareTo.
+ * A piecewise linear model maps the projection to the array position. The segments are built
+ * greedily (shrinking cone): a segment is extended as long as one line predicts all its
+ * positions within maxError. Keys with the same projection (same four char prefix) can not be
+ * told apart by the model; the actual maximum error of each segment, including such groups,
+ * is stored with the segment.
+ * <p>
+ * A lookup finds the segment by binary search over the projections of the segment starts
+ * (long comparisons, no String comparisons), predicts the position and returns the window
+ * [prediction - error, prediction + error] that contains the key if it is in the array.
+ */
+final class LearnedIndex {
+
+    // projection of the first key of each segment, sign bit flipped for signed comparison
+    private final long[] segKey;
+    private final int[] segStart;
+    private final double[] slope;
+    private final int[] segError;
+    private final int size;
+
+    private LearnedIndex(long[] segKey, int[] segStart, double[] slope, int[] segError, int size) {
+        this.segKey = segKey;
+        this.segStart = segStart;
+        this.slope = slope;
+        this.segError = segError;
+        this.size = size;
+    }
+
+    /**
+     * Builds the index over data[0, size).
+     * @param data entries sorted by key.
+     * @param size number of entries.
+     * @param maxError maximum error of the linear model within a segment.
+     * @return index, or null if the keys are not CharSequences or there are no keys.
+     */
+    static LearnedIndex build(Dictionary.Entry<?, ?>[] data, int size, int maxError) {
+        if (size == 0) {
+            return null;
+        }
+        long[] proj = new long[size];
+        for (int i = 0; i < size; i++) {
+            if (!(data[i].getKey() instanceof CharSequence)) {
+                return null;
+            }
+            proj[i] = project((CharSequence) data[i].getKey());
+        }
+
+        long[] keys = new long[16];
+        int[] starts = new int[16];
+        double[] slopes = new double[16];
+        int[] errors = new int[16];
+        int n = 0;
+
+        int start = 0;
+        while (start < size) {
+            long x0 = proj[start];
+            double lo = Double.NEGATIVE_INFINITY;
+            double hi = Double.POSITIVE_INFINITY;
+            int j = endOfGroup(proj, start);
+            while (j < size) {
+                // the line through (x0, start) must predict j within maxError
+                double dx = unsignedToDouble(proj[j] - x0);
+                double newLo = Math.max(lo, (j - maxError - start) / dx);
+                double newHi = Math.min(hi, (j + maxError - start) / dx);
+                if (newLo > newHi) {
+                    break;
+                }
+                lo = newLo;
+                hi = newHi;
+                j = endOfGroup(proj, j);
+            }
+            double s = lo == Double.NEGATIVE_INFINITY ? 0 : (lo + hi) / 2;
+
+            // actual error, including the positions within groups of equal projections
+            double error = 0;
+            for (int k = start; k < j; k++) {
+                double predicted = start + s * unsignedToDouble(proj[k] - x0);
+                error = Math.max(error, Math.abs(predicted - k));
+            }
+
+            if (n == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * n);
+                starts = Arrays.copyOf(starts, 2 * n);
+                slopes = Arrays.copyOf(slopes, 2 * n);
+                errors = Arrays.copyOf(errors, 2 * n);
+            }
+            keys[n] = x0 ^ Long.MIN_VALUE;
+            starts[n] = start;
+            slopes[n] = s;
+            errors[n] = (int) Math.ceil(error);
+            n++;
+            start = j;
+        }
+
+        return new LearnedIndex(Arrays.copyOf(keys, n), Arrays.copyOf(starts, n),
+                Arrays.copyOf(slopes, n), Arrays.copyOf(errors, n), size);
+    }
+
+    // index after the last key with the same projection as proj[i]
+    private static int endOfGroup(long[] proj, int i) {
+        int j = i + 1;
+        while (j < proj.length && proj[j] == proj[i]) {
+            j++;
+        }
+        return j;
+    }
+
+    /**
+     * First four chars as unsigned 64 bit value, order preserving.
+     */
+    static long project(CharSequence s) {
+        long p = 0;
+        for (int i = 0; i < 4; i++) {
+            p = p << 16 | (i < s.length() ? s.charAt(i) : 0);
+        }
+        return p;
+    }
+
+    private static double unsignedToDouble(long x) {
+        double d = (double) (x >>> 1) * 2.0;
+        return d + (x & 1);
+    }
+
+    /**
+     * Returns the window that contains key if it is in the array.
+     * @param key key.
+     * @return (low &lt;&lt; 32) | high, inclusive bounds, or -1 if the key can not be in the array.
+     */
+    long window(CharSequence key) {
+        long x = project(key);
+        long flipped = x ^ Long.MIN_VALUE;
+
+        // last segment starting at or before x
+        int low = 0;
+        int high = segKey.length - 1;
+        if (flipped < segKey[0]) {
+            return -1;
+        }
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (segKey[mid] <= flipped) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int s = low;
+        int first = segStart[s];
+        int last = s + 1 < segStart.length ? segStart[s + 1] - 1 : size - 1;
+
+        double predicted = first + slope[s] * unsignedToDouble(x - (segKey[s] ^ Long.MIN_VALUE));
+        long from = Math.max(first, (long) Math.floor(predicted - segError[s]));
+        long to = Math.min(last, (long) Math.ceil(predicted + segError[s]));
+        if (from > to) {
+            return -1;
+        }
+        return from << 32 | to;
+    }
+
+    /**
+     * Returns the number of segments.
+     * @return number of segments.
+     */
+    int segments() {
+        return segKey.length;
+    }
+}
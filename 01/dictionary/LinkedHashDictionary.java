@@ -1,9 +1,22 @@
 package dictionary;
 
+import java.util.BitSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.ListIterator;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
+/**
+ * Hash table with chaining: every bucket is a linked list of entries.
+ * <p>
+ * The table size is a power of two and the bucket is taken from the low bits of a mixed hash
+ * (see {@link Hasher}), which is faster than the modulo by a prime and spreads poor hashCodes just as well.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
 @SuppressWarnings("unchecked")
 public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V>{
 
@@ -15,52 +28,81 @@ public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements
 
     LinkedList<Entry<K, V>>[] tab;
     int size = 0;
+    // tab.length - 1, the table size is a power of two
+    int mask;
+    private final Hasher<? super K> hasher;
 
+    // tab is referenced by a snapshot iterator and must be copied before the next write
+    private boolean shared = false;
+    // buckets of the current tab that are still referenced by a snapshot, null if none
+    private BitSet sharedBuckets = null;
+    // entries may be referenced by a snapshot, values are then replaced instead of set
+    private boolean snapshotTaken = false;
+
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("LinkedHashDictionary", this::refreshStats);
 
     public LinkedHashDictionary(int capacity) {
-        int newCapacity = isPrime(capacity) ? capacity : nextPrime(capacity);
-        this.tab = new LinkedList[newCapacity];
+        this(capacity, Hasher.defaultHasher());
+    }
+
+    /**
+     * @param capacity initial capacity, rounded up to a power of two.
+     * @param hasher hash function for the keys, e.g. {@link Hasher#seeded()}.
+     */
+    public LinkedHashDictionary(int capacity, Hasher<? super K> hasher) {
+        this.tab = new LinkedList[HashTables.tableSizeFor(capacity)];
+        this.mask = tab.length - 1;
+        this.hasher = hasher;
     }
 
     @Override
     public V remove(K key) {
-        var it = tab[hash(key)].iterator();
-        while (it.hasNext()){
-            Entry<K,V> e = it.next();
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int index = hash(key);
+        if (tab[index] == null) {
+            return null;
+        }
+        int position = 0;
+        for (Entry<K, V> e : tab[index]) {
             if (e.getKey().equals(key)) {
-                it.remove();
+                unshare();
+                writableBucket(index).remove(position);
                 this.size--;
                 return e.getValue();
             }
+            position++;
         }
         return null;
     }
 
-    private int nextPrime(int n) {
-        if (n <= 2) return 2;
-        if (n % 2 == 0) n++;
-        while (!isPrime(n)) {
-            n += 2;
+    // copy on write: the table of a snapshot is never modified
+    private void unshare() {
+        if (shared) {
+            tab = tab.clone();
+            sharedBuckets = new BitSet(tab.length);
+            sharedBuckets.set(0, tab.length);
+            shared = false;
         }
-        return n;
     }
 
-    private boolean isPrime(int n) {
-        if (n < 2) return false;
-        if (n == 2) return true;
-        if (n % 2 == 0) return false;
-
-        int sqrtN = (int) Math.sqrt(n);
-
-        for (int i = 3; i <= sqrtN; i += 2) {
-            if (n % i == 0) return false;
+    // returns the bucket at index for modification, a bucket still referenced by a snapshot is copied first
+    private LinkedList<Entry<K, V>> writableBucket(int index) {
+        if (tab[index] == null) {
+            tab[index] = new LinkedList<>();
+        } else if (sharedBuckets != null && sharedBuckets.get(index)) {
+            tab[index] = new LinkedList<>(tab[index]);
         }
-
-        return true;
+        if (sharedBuckets != null) {
+            sharedBuckets.clear(index);
+        }
+        return tab[index];
     }
 
     private int hash(K key) {
-        return Math.abs(key.hashCode()) % tab.length;
+        return hasher.hash(key) & mask;
     }
 
 
@@ -71,38 +113,45 @@ public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements
         }
 
         int index = hash(key);
-        if (tab[index] == null) {
-            tab[index] = new LinkedList<>();
-        } else if (2 <= size / tab.length) { // load factor bigger than 2
+        if (tab[index] != null && 2 <= size / tab.length) { // load factor bigger than 2
             resize();
             index = hash(key);
-            tab[index] = new LinkedList<>();
         }
 
-        for (Entry<K, V> e : tab[index]) {
+        unshare();
+        LinkedList<Entry<K, V>> bucket = writableBucket(index);
+        ListIterator<Entry<K, V>> it = bucket.listIterator();
+        while (it.hasNext()) {
+            Entry<K, V> e = it.next();
             // replace value if key already exists and return old value
             if (e.getKey().equals(key)) {
                 V oldValue = e.getValue();
-                e.setValue(value);
+                if (snapshotTaken) {
+                    it.set(new Entry<>(key, value));
+                } else {
+                    e.setValue(value);
+                }
                 return oldValue;
             }
         }
 
         // add new entry
-        tab[index].add(new Entry<>(key, value));
+        bucket.add(new Entry<>(key, value));
         size++;
 
         return null;
     }
 
     private void resize() {
-        int newCapacity = nextPrime(tab.length * 2);
+        long start = DictionaryStats.ENABLED ? System.nanoTime() : 0;
+        int newCapacity = HashTables.tableSizeFor(tab.length * 2);
+        int newMask = newCapacity - 1;
         LinkedList<Entry<K, V>>[] newTab = new LinkedList[newCapacity];
 
         for (LinkedList<Entry<K, V>> entries : tab) {
             if (entries != null) {
                 for (Entry<K, V> e : entries) {
-                    int newIndex = Math.abs(e.getKey().hashCode()) % newCapacity;
+                    int newIndex = hasher.hash(e.getKey()) & newMask;
                     if (newTab[newIndex] == null) {
                         newTab[newIndex] = new LinkedList<>();
                     }
@@ -111,7 +160,20 @@ public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements
             }
         }
 
+        if (DictionaryStats.ENABLED) stats.recordResize(start, tab.length, newCapacity, size);
         this.tab = newTab;
+        this.mask = newMask;
+        this.shared = false;
+        this.sharedBuckets = null;
+    }
+
+    // recomputes the chain length distribution over all buckets
+    private void refreshStats() {
+        DictionaryStats.Histogram chainLengths = stats.histogram("chain length");
+        chainLengths.clear();
+        for (LinkedList<Entry<K, V>> entries : tab) {
+            chainLengths.record(entries == null ? 0 : entries.size());
+        }
     }
 
     @Override
@@ -133,10 +195,59 @@ public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements
         return null;
     }
 
+    /**
+     * Batched search: first the first entry of every chain is loaded (table slot, list, head node
+     * and entry), so the cache misses of the independent keys overlap, then the keys are compared
+     * and the rest of a chain is only scanned if its first entry does not match.
+     */
+    @Override
+    public void searchAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array too short");
+        }
+        int n = keys.length;
+        LinkedList<Entry<K, V>>[] t = tab;
+
+        int[] home = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("Key must not be null");
+            }
+            home[i] = hash(keys[i]);
+        }
+
+        Entry<K, V>[] first = (Entry<K, V>[]) new Entry<?, ?>[n];
+        for (int i = 0; i < n; i++) {
+            LinkedList<Entry<K, V>> bucket = t[home[i]];
+            first[i] = bucket == null ? null : bucket.peekFirst();
+        }
+
+        for (int i = 0; i < n; i++) {
+            out[i] = null;
+            if (first[i] == null) {
+                continue;
+            }
+            if (first[i].getKey().equals(keys[i])) {
+                out[i] = first[i].getValue();
+                continue;
+            }
+            for (Entry<K, V> e : t[home[i]]) {
+                if (e.getKey().equals(keys[i])) {
+                    out[i] = e.getValue();
+                    break;
+                }
+            }
+        }
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
 
     @Override
     public int size() {
-        return this.tab.length;
+        return this.size;
     }
 
     @Override
@@ -184,4 +295,112 @@ public class LinkedHashDictionary<K extends Comparable<? super K>, V> implements
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Splits by bucket range: each half of the remaining buckets gets half of the estimated size.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return new BucketSpliterator(tab, 0, tab.length, size, true);
+    }
+
+    private final class BucketSpliterator implements Spliterator<Entry<K, V>> {
+        private final LinkedList<Entry<K, V>>[] t;
+        // next bucket, the entries of the current bucket are in current
+        private int index;
+        private final int fence;
+        private Iterator<Entry<K, V>> current = null;
+        private long estimate;
+        // estimate is the exact size, only until the first split
+        private boolean exact;
+
+        BucketSpliterator(LinkedList<Entry<K, V>>[] t, int index, int fence, long estimate, boolean exact) {
+            this.t = t;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            exact = false;
+            estimate >>>= 1;
+            BucketSpliterator prefix = new BucketSpliterator(t, index, mid, estimate, false);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            while (current == null || !current.hasNext()) {
+                if (index >= fence) {
+                    return false;
+                }
+                current = t[index] == null ? null : t[index].iterator();
+                index++;
+            }
+            action.accept(current.next());
+            return true;
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries at the time of this call.
+     * <p>
+     * The iterator works on the current table and buckets, which are copied on write:
+     * the next write copies the table references, and every bucket is copied before it is first modified.
+     * So creating a snapshot costs O(1), instead of a copy of the whole dictionary.
+     * The iteration may run in another thread concurrently with writes to this dictionary;
+     * only the call of snapshotIterator itself must not overlap with a write
+     * (e.g. call it under the lock that guards the writers).
+     * Once a snapshot was taken, updating the value of an existing key creates a new entry.
+     *
+     * @return iterator over a snapshot of the entries.
+     */
+    public Iterator<Entry<K, V>> snapshotIterator() {
+        shared = true;
+        snapshotTaken = true;
+        LinkedList<Entry<K, V>>[] snapshot = tab;
+        return new Iterator<>() {
+            private int currentIndex = 0;
+            private Iterator<Entry<K, V>> currentIterator = null;
+
+            @Override
+            public boolean hasNext() {
+                while (currentIterator == null || !currentIterator.hasNext()) {
+                    if (currentIndex >= snapshot.length) {
+                        return false;
+                    }
+                    if (snapshot[currentIndex] != null) {
+                        currentIterator = snapshot[currentIndex].iterator();
+                    }
+                    currentIndex++;
+                }
+                return true;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return currentIterator.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,437 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+
+/**
+ * Hash multimap: every key is mapped to a list of values, e.g. all english translations of a german word.
+ * <p>
+ * The keys are stored in an open addressing table (see {@link HashTables}). The values of all keys
+ * are stored in one shared array; per key the table holds offset, length and capacity of its range.
+ * So there is no list object per key. A range that is full is moved to the end of the value array
+ * with twice the capacity (or grown in place if it already is the last range); the array is compacted
+ * when more than half of it is garbage.
+ * <p>
+ * {@link #searchAll(Object)} returns a view of the range without copying.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class MultiHashDictionary<K, V> implements Iterable<Dictionary.Entry<K, V>> {
+
+    private static final Object DELETED = new Object();
+
+    // key table: null = free, DELETED = removed key
+    private Object[] keys;
+    private int[] offset;
+    private int[] length;
+    private int[] capacity;
+    private int mask;
+    private int size = 0;
+    private int used = 0;
+
+    // shared value array, [0, end) is allocated, garbage counts the slots of abandoned ranges
+    private Object[] values = new Object[16];
+    private int end = 0;
+    private int garbage = 0;
+    private int valueCount = 0;
+
+    private final Hasher<? super K> hasher;
+
+    public MultiHashDictionary() {
+        this(8, Hasher.defaultHasher());
+    }
+
+    /**
+     * @param capacity expected number of keys.
+     * @param hasher hash function for the keys.
+     */
+    public MultiHashDictionary(int capacity, Hasher<? super K> hasher) {
+        this.hasher = hasher;
+        allocate(HashTables.tableSizeFor(capacity * 3 / 2 + 1));
+    }
+
+    private void allocate(int tableSize) {
+        keys = new Object[tableSize];
+        offset = new int[tableSize];
+        length = new int[tableSize];
+        capacity = new int[tableSize];
+        mask = tableSize - 1;
+        used = size;
+    }
+
+    /**
+     * Reads a word file with lines "deutsch englisch" and maps every german word to all its translations.
+     * @param filename word file, e.g. dtengl.txt.
+     * @return multimap.
+     * @throws IOException if the file can not be read.
+     */
+    public static MultiHashDictionary<String, String> read(String filename) throws IOException {
+        List<String> german = new ArrayList<>();
+        List<String> english = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                if (parts.length == 2) {
+                    german.add(parts[0]);
+                    english.add(parts[1]);
+                }
+            }
+        }
+        MultiHashDictionary<String, String> dict = new MultiHashDictionary<>(german.size(), Hasher.defaultHasher());
+        dict.addAll(german.toArray(new String[0]), english.toArray(new String[0]));
+        return dict;
+    }
+
+    // slot of key, -1 if not contained
+    private int find(Object key) {
+        int index = hasher.hash((K) key) & mask;
+        for (int j = 1; keys[index] != null; j++) {
+            if (keys[index] != DELETED && keys[index].equals(key)) {
+                return index;
+            }
+            if (j > mask) {
+                break;
+            }
+            index = HashTables.nextProbe(index, j, mask);
+        }
+        return -1;
+    }
+
+    // slot of key, a new key gets a slot with an empty value range
+    private int findOrAdd(K key) {
+        int slot = find(key);
+        if (slot != -1) {
+            return slot;
+        }
+        if (used + 1 > (keys.length >> 1) + (keys.length >> 2)) {
+            rehash(size + 1);
+        }
+        int index = hasher.hash(key) & mask;
+        for (int j = 1; keys[index] != null && keys[index] != DELETED; j++) {
+            index = HashTables.nextProbe(index, j, mask);
+        }
+        if (keys[index] == null) {
+            used++;
+        }
+        keys[index] = key;
+        offset[index] = end;
+        length[index] = 0;
+        capacity[index] = 0;
+        size++;
+        return index;
+    }
+
+    // rebuilds the key table for at least the given number of keys, the value ranges stay where they are
+    private void rehash(int minKeys) {
+        Object[] oldKeys = keys;
+        int[] oldOffset = offset;
+        int[] oldLength = length;
+        int[] oldCapacity = capacity;
+        allocate(HashTables.tableSizeFor(Math.max(minKeys * 2, 8)));
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object k = oldKeys[i];
+            if (k != null && k != DELETED) {
+                int index = hasher.hash((K) k) & mask;
+                for (int j = 1; keys[index] != null; j++) {
+                    index = HashTables.nextProbe(index, j, mask);
+                }
+                keys[index] = k;
+                offset[index] = oldOffset[i];
+                length[index] = oldLength[i];
+                capacity[index] = oldCapacity[i];
+            }
+        }
+    }
+
+    /**
+     * Adds a value to the values of key. Duplicates are allowed.
+     * @param key key.
+     * @param value value.
+     */
+    public void add(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        int slot = findOrAdd(key);
+        if (length[slot] == capacity[slot]) {
+            grow(slot, Math.max(2, 2 * capacity[slot]));
+        }
+        values[offset[slot] + length[slot]++] = value;
+        valueCount++;
+    }
+
+    /**
+     * Adds all pairs (keys[i], values[i]).
+     * The key table is sized once for all keys, so no key is rehashed during the load,
+     * and every pair is looked up only once. Every range is grown at most once,
+     * and the values of a new key are stored contiguously.
+     * @param keys keys.
+     * @param values values, as many as keys.
+     */
+    public void addAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("Different number of keys and values");
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] == null || values[i] == null) {
+                throw new IllegalArgumentException("Key and value must not be null");
+            }
+        }
+        if ((long) used + keys.length > (this.keys.length >> 1) + (this.keys.length >> 2)) {
+            rehash(size + keys.length);
+        }
+
+        // pass 1: slot of every pair and number of new values per slot
+        int[] slots = new int[keys.length];
+        int[] added = new int[this.keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            slots[i] = findOrAdd(keys[i]);
+            added[slots[i]]++;
+        }
+
+        // reserve the ranges
+        for (int s = 0; s < added.length; s++) {
+            if (added[s] > 0 && length[s] + added[s] > capacity[s]) {
+                grow(s, length[s] + added[s]);
+            }
+        }
+
+        // pass 2: append the values
+        for (int i = 0; i < keys.length; i++) {
+            int s = slots[i];
+            this.values[offset[s] + length[s]++] = values[i];
+        }
+        valueCount += keys.length;
+    }
+
+    // gives the range of slot at least newCapacity value slots
+    private void grow(int slot, int newCapacity) {
+        int extra = newCapacity - capacity[slot];
+        if (offset[slot] + capacity[slot] == end) {
+            // last range: grow in place
+            ensureValues(end + extra);
+            end += extra;
+        } else {
+            if (garbage + capacity[slot] > (end + newCapacity) / 2) {
+                compact();
+            }
+            ensureValues(end + newCapacity);
+            System.arraycopy(values, offset[slot], values, end, length[slot]);
+            Arrays.fill(values, offset[slot], offset[slot] + capacity[slot], null);
+            garbage += capacity[slot];
+            offset[slot] = end;
+            end += newCapacity;
+        }
+        capacity[slot] = newCapacity;
+    }
+
+    private void ensureValues(int minLength) {
+        if (minLength > values.length) {
+            values = Arrays.copyOf(values, Math.max(minLength, 2 * values.length));
+        }
+    }
+
+    // moves all ranges (with their capacity) to the front of a new value array
+    private void compact() {
+        int live = end - garbage;
+        Object[] compacted = new Object[Math.max(16, live + live / 2)];
+        int pos = 0;
+        for (int s = 0; s < keys.length; s++) {
+            if (keys[s] != null && keys[s] != DELETED) {
+                System.arraycopy(values, offset[s], compacted, pos, length[s]);
+                offset[s] = pos;
+                pos += capacity[s];
+            }
+        }
+        values = compacted;
+        end = pos;
+        garbage = 0;
+    }
+
+    /**
+     * Returns all values of key in insertion order.
+     * The list is a read-only view of the shared value array (no copy); it is only valid
+     * until the next modification of this multimap.
+     * @param key key.
+     * @return values, empty list if key is not contained.
+     */
+    public List<V> searchAll(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int slot = find(key);
+        if (slot == -1) {
+            return Collections.emptyList();
+        }
+        return new ValueView<>(values, offset[slot], length[slot]);
+    }
+
+    /**
+     * Returns the first value of key.
+     * @param key key.
+     * @return first value, or null if key is not contained.
+     */
+    public V search(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int slot = find(key);
+        return slot == -1 ? null : (V) values[offset[slot]];
+    }
+
+    /**
+     * Removes key with all its values.
+     * @param key key.
+     * @return number of removed values.
+     */
+    public int remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        int slot = find(key);
+        if (slot == -1) {
+            return 0;
+        }
+        int n = length[slot];
+        removeSlot(slot);
+        return n;
+    }
+
+    /**
+     * Removes one occurrence of value from the values of key; the key is removed with its last value.
+     * @param key key.
+     * @param value value.
+     * @return true if the value was contained.
+     */
+    public boolean removeValue(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        int slot = find(key);
+        if (slot == -1) {
+            return false;
+        }
+        int from = offset[slot];
+        int to = from + length[slot];
+        for (int i = from; i < to; i++) {
+            if (values[i].equals(value)) {
+                if (length[slot] == 1) {
+                    removeSlot(slot);
+                } else {
+                    System.arraycopy(values, i + 1, values, i, to - i - 1);
+                    values[to - 1] = null;
+                    length[slot]--;
+                    valueCount--;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeSlot(int slot) {
+        Arrays.fill(values, offset[slot], offset[slot] + length[slot], null);
+        garbage += capacity[slot];
+        valueCount -= length[slot];
+        keys[slot] = DELETED;
+        length[slot] = 0;
+        capacity[slot] = 0;
+        size--;
+    }
+
+    /**
+     * Returns the number of keys.
+     * @return number of keys.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of values of all keys.
+     * @return number of values.
+     */
+    public int valueCount() {
+        return valueCount;
+    }
+
+    /**
+     * Returns an iterator over all key-value pairs, the values of a key in insertion order.
+     */
+    @Override
+    public Iterator<Dictionary.Entry<K, V>> iterator() {
+        return new Iterator<>() {
+            private int slot = -1;
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (slot < 0 || i >= length[slot]) {
+                    if (++slot >= keys.length) {
+                        slot = keys.length - 1;
+                        return false;
+                    }
+                    i = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public Dictionary.Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Dictionary.Entry<>((K) keys[slot], (V) values[offset[slot] + i++]);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int s = 0; s < keys.length; s++) {
+            if (keys[s] != null && keys[s] != DELETED) {
+                sb.append(keys[s]).append(": ").append(new ValueView<>(values, offset[s], length[s])).append("\n");
+            }
+        }
+        return sb.toString();
+    }
+
+    // read-only list over a range of the value array
+    private static class ValueView<V> extends AbstractList<V> implements RandomAccess {
+        private final Object[] values;
+        private final int offset;
+        private final int length;
+
+        ValueView(Object[] values, int offset, int length) {
+            this.values = values;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public V get(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return (V) values[offset + index];
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+    }
+}
@@ -1,17 +1,42 @@
 package dictionary;
 
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 @SuppressWarnings("unchecked")
 public class OpenHashDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
 
     Entry<K, V>[] tab;
     int size;
+    // tab.length - 1, the table size is a power of two
+    int mask;
+    private final Hasher<? super K> hasher;
     final Entry<K,V> DELETED = new Entry<>(null, null);
 
+    // tab is referenced by a snapshot iterator and must be copied before the next write
+    private boolean shared = false;
+    // entries may be referenced by a snapshot, values are then replaced instead of set
+    private boolean snapshotTaken = false;
+
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("OpenHashDictionary", null);
+    private final DictionaryStats.Histogram probeLengths = stats == null ? null : stats.histogram("probe length");
+
     public OpenHashDictionary(int capacity) {
-        this.tab = new Entry[capacity];
+        this(capacity, Hasher.defaultHasher());
+    }
+
+    /**
+     * @param capacity initial capacity, rounded up to a power of two.
+     * @param hasher hash function for the keys, e.g. {@link Hasher#seeded()}.
+     */
+    public OpenHashDictionary(int capacity, Hasher<? super K> hasher) {
+        this.tab = new Entry[HashTables.tableSizeFor(capacity)];
+        this.mask = tab.length - 1;
         this.size = 0;
+        this.hasher = hasher;
     }
 
     @Override
@@ -24,6 +49,7 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
         int index = searchAdr(key);
         if (index != -1 && tab[index] != null && tab[index] != DELETED) {
             V value = tab[index].getValue();
+            unshare();
             tab[index] = DELETED;
             size--;
             return value;
@@ -32,35 +58,8 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
         return null;
     }
 
-    private int nextPrime(int n) {
-        if (n <= 2) return 2;
-        if (n % 2 == 0) n++;
-        while (!(isSpecialPrime(n) && isPrime(n))) {
-            n += 2;
-        }
-        return n;
-    }
-
-    private boolean isPrime(int n) {
-        if (n < 2) return false;
-        if (n == 2) return true;
-        if (n % 2 == 0) return false;
-
-        int sqrtN = (int) Math.sqrt(n);
-
-        for (int i = 3; i <= sqrtN; i += 2) {
-            if (n % i == 0) return false;
-        }
-
-        return true;
-    }
-
-    private boolean isSpecialPrime(int a) {
-        return 3 == (a % 4 + 4) % 4;
-    }
-
     private int hash(K key) {
-        return Math.abs(key.hashCode()) % tab.length;
+        return hasher.hash(key) & mask;
     }
 
     @Override
@@ -74,10 +73,15 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
         }
         int index = searchAdr(key);
         if (index != -1) {
+            unshare();
             if (tab[index] == DELETED || tab[index] == null) {
                 tab[index] = new Entry<>(key, value);
                 size++;
                 return null;
+            } else if (snapshotTaken) {
+                V oldValue = tab[index].getValue();
+                tab[index] = new Entry<>(key, value);
+                return oldValue;
             } else {
                 V oldValue = tab[index].getValue();
                 tab[index].setValue(value);
@@ -88,54 +92,62 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
         return null;
     }
 
-
-    private int probe(int j, K key) {
-        return (hash(key) + j * j) % tab.length;
-    }
-
     private int searchAdr(K key) {
         if (key == null){
             throw new IllegalArgumentException("Key must not be null");
         }
         int candidate = -1;
+        int index = hash(key);
         int j = 0;
         while (j < tab.length) {
-            int index = (hash(key) + (j * j)) % tab.length;
             if (tab[index] == null) {
+                if (DictionaryStats.ENABLED) probeLengths.record(j);
                 return candidate != -1 ? candidate : index;
             } else if (tab[index] == DELETED) {
                 if (candidate == -1) {
                     candidate = index;
                 }
             } else if (tab[index].getKey().equals(key)) {
+                if (DictionaryStats.ENABLED) probeLengths.record(j);
                 return index;
             }
             j++;
+            index = HashTables.nextProbe(index, j, mask);
         }
+        if (DictionaryStats.ENABLED) probeLengths.record(j);
         return candidate;
 
     }
 
     private void resize() {
-        int newCapacity = nextPrime(this.tab.length * 2);
+        long start = DictionaryStats.ENABLED ? System.nanoTime() : 0;
+        int newCapacity = HashTables.tableSizeFor(this.tab.length * 2);
+        int newMask = newCapacity - 1;
         Entry<K, V>[] newTab = new Entry[newCapacity];
 
         // mit sondierung
         for (Entry<K, V> kvEntry : this.tab) {
             if (kvEntry != null && kvEntry != DELETED) {
-                int j = 0;
-                while (j < newTab.length) {
-                    int index = (Math.abs(kvEntry.getKey().hashCode()) % newTab.length + j * j) % newTab.length;
-                    if (newTab[index] == null) {
-                        newTab[index] = kvEntry;
-                        break;
-                    }
-                    j++;
+                int index = hasher.hash(kvEntry.getKey()) & newMask;
+                for (int j = 1; newTab[index] != null; j++) {
+                    index = HashTables.nextProbe(index, j, newMask);
                 }
+                newTab[index] = kvEntry;
             }
         }
 
+        if (DictionaryStats.ENABLED) stats.recordResize(start, this.tab.length, newCapacity, size);
         this.tab = newTab;
+        this.mask = newMask;
+        this.shared = false;
+    }
+
+    // copy on write: the table of a snapshot is never modified
+    private void unshare() {
+        if (shared) {
+            tab = tab.clone();
+            shared = false;
+        }
     }
 
     @Override
@@ -153,10 +165,83 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
         return null;
     }
 
+    /**
+     * Batched search: first all home slots are computed and loaded, so the cache misses
+     * of the independent keys overlap, then the keys that need further probing
+     * are resolved in an interleaved loop, one probe step per key and round.
+     */
+    @Override
+    public void searchAll(K[] keys, V[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array too short");
+        }
+        int n = keys.length;
+        Entry<K, V>[] t = tab;
+        int m = mask;
+
+        // current probe position of every key, starting at its home slot
+        int[] home = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (keys[i] == null) {
+                throw new IllegalArgumentException("Key must not be null");
+            }
+            home[i] = hash(keys[i]);
+        }
+
+        Entry<K, V>[] first = (Entry<K, V>[]) new Entry<?, ?>[n];
+        for (int i = 0; i < n; i++) {
+            first[i] = t[home[i]];
+        }
+
+        // keys whose home slot is occupied by another key (or DELETED) probe further
+        int[] pending = new int[n];
+        int p = 0;
+        for (int i = 0; i < n; i++) {
+            Entry<K, V> e = first[i];
+            if (e == null) {
+                if (DictionaryStats.ENABLED) probeLengths.record(0);
+                out[i] = null;
+            } else if (e != DELETED && e.getKey().equals(keys[i])) {
+                if (DictionaryStats.ENABLED) probeLengths.record(0);
+                out[i] = e.getValue();
+            } else {
+                pending[p++] = i;
+            }
+        }
+
+        for (int j = 1; p > 0; j++) {
+            int remaining = 0;
+            for (int k = 0; k < p; k++) {
+                int i = pending[k];
+                if (j >= t.length) {
+                    if (DictionaryStats.ENABLED) probeLengths.record(j);
+                    out[i] = null;
+                    continue;
+                }
+                home[i] = HashTables.nextProbe(home[i], j, m);
+                Entry<K, V> e = t[home[i]];
+                if (e == null) {
+                    if (DictionaryStats.ENABLED) probeLengths.record(j);
+                    out[i] = null;
+                } else if (e != DELETED && e.getKey().equals(keys[i])) {
+                    if (DictionaryStats.ENABLED) probeLengths.record(j);
+                    out[i] = e.getValue();
+                } else {
+                    pending[remaining++] = i;
+                }
+            }
+            p = remaining;
+        }
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
 
     @Override
     public int size() {
-        return this.tab.length;
+        return this.size;
     }
 
     @Override
@@ -177,7 +262,7 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
 
             @Override
             public boolean hasNext() {
-                while (index < tab.length && tab[index] == null) {
+                while (index < tab.length && (tab[index] == null || tab[index] == DELETED)) {
                     index++;
                 }
                 return index < tab.length;
@@ -192,4 +277,112 @@ public class OpenHashDictionary<K extends Comparable<? super K>, V> implements D
             }
         };
     }
-}
\ No newline at end of file
+
+    /**
+     * Splits by table range: each half of the remaining range gets half of the estimated size.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return new TableSpliterator(tab, 0, tab.length, size, true);
+    }
+
+    private final class TableSpliterator implements Spliterator<Entry<K, V>> {
+        private final Entry<K, V>[] t;
+        private int index;
+        private final int fence;
+        private long estimate;
+        // estimate is the exact size, only until the first split
+        private boolean exact;
+
+        TableSpliterator(Entry<K, V>[] t, int index, int fence, long estimate, boolean exact) {
+            this.t = t;
+            this.index = index;
+            this.fence = fence;
+            this.estimate = estimate;
+            this.exact = exact;
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            exact = false;
+            estimate >>>= 1;
+            TableSpliterator prefix = new TableSpliterator(t, index, mid, estimate, false);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            while (index < fence) {
+                Entry<K, V> e = t[index++];
+                if (e != null && e != DELETED) {
+                    action.accept(e);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            for (; index < fence; index++) {
+                Entry<K, V> e = t[index];
+                if (e != null && e != DELETED) {
+                    action.accept(e);
+                }
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return estimate;
+        }
+
+        @Override
+        public int characteristics() {
+            return DISTINCT | NONNULL | (exact ? SIZED : 0);
+        }
+    }
+
+    /**
+     * Returns an iterator over the entries at the time of this call.
+     * <p>
+     * The iterator works on the current table, which is copied by the next write (copy on write),
+     * so creating a snapshot costs O(1) and the first write afterwards one copy of the table references.
+     * The iteration may run in another thread concurrently with writes to this dictionary;
+     * only the call of snapshotIterator itself must not overlap with a write
+     * (e.g. call it under the lock that guards the writers).
+     * Once a snapshot was taken, updating the value of an existing key creates a new entry.
+     *
+     * @return iterator over a snapshot of the entries.
+     */
+    public Iterator<Entry<K, V>> snapshotIterator() {
+        shared = true;
+        snapshotTaken = true;
+        Entry<K, V>[] snapshot = tab;
+        Entry<K, V> deleted = DELETED;
+        return new Iterator<Entry<K, V>>() {
+            int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (index < snapshot.length && (snapshot[index] == null || snapshot[index] == deleted)) {
+                    index++;
+                }
+                return index < snapshot.length;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return snapshot[index++];
+            }
+        };
+    }
+}
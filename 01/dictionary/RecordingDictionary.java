@@ -0,0 +1,152 @@
+package dictionary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+/**
+ * Decorator that records every insert, search and remove to a binary trace file,
+ * which {@link TraceReplay} can replay against any Dictionary.
+ * <p>
+ * Trace format: the magic number {@link #MAGIC} and the version (two ints), followed by one record per call:
+ * <pre>
+ * byte    opcode (INSERT, SEARCH, REMOVE)
+ * varint  nanoseconds since the previous record (since creation for the first record)
+ * string  key
+ * string  value (INSERT only)
+ * </pre>
+ * A string is a varint n followed by n - 1 bytes of UTF-8, n = 0 stands for null.
+ * Version 1 traces stored the strings with writeUTF, which is limited to 65535 bytes.
+ * <p>
+ * A call is recorded after the dictionary has returned; calls that throw (e.g. because of a
+ * null key) are not recorded. Calls from several threads are recorded in the order in which they return.
+ * The trace must be closed to flush the buffer.
+ */
+public class RecordingDictionary implements Dictionary<String, String>, AutoCloseable {
+
+    static final int MAGIC = 0x44545243; // "DTRC"
+    static final int VERSION = 2;
+
+    static final byte INSERT = 1;
+    static final byte SEARCH = 2;
+    static final byte REMOVE = 3;
+
+    private final Dictionary<String, String> dictionary;
+    private final DataOutputStream out;
+    private long lastNanos;
+    private long records = 0;
+
+    /**
+     * @param dictionary dictionary that executes the calls.
+     * @param filename trace file, overwritten.
+     * @throws IOException if the file can not be created.
+     */
+    public RecordingDictionary(Dictionary<String, String> dictionary, String filename) throws IOException {
+        this.dictionary = dictionary;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        lastNanos = System.nanoTime();
+    }
+
+    private void record(byte opcode, String key, String value) {
+        // encoded before anything is written, so a record is never written partially
+        byte[] keyBytes = encode(key);
+        byte[] valueBytes = opcode == INSERT ? encode(value) : null;
+        synchronized (this) {
+            try {
+                long now = System.nanoTime();
+                out.writeByte(opcode);
+                writeVarLong(out, Math.max(0, now - lastNanos));
+                writeString(out, keyBytes);
+                if (opcode == INSERT) {
+                    writeString(out, valueBytes);
+                }
+                lastNanos = now;
+                records++;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static byte[] encode(String s) {
+        return s == null ? null : s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void writeString(DataOutputStream out, byte[] bytes) throws IOException {
+        if (bytes == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        writeVarLong(out, bytes.length + 1L);
+        out.write(bytes);
+    }
+
+    // 7 bits per byte, high bit set if more bytes follow
+    static void writeVarLong(DataOutputStream out, long v) throws IOException {
+        while ((v & ~0x7FL) != 0) {
+            out.writeByte((int) (v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        out.writeByte((int) v);
+    }
+
+    @Override
+    public String insert(String key, String value) {
+        String old = dictionary.insert(key, value);
+        record(INSERT, key, value);
+        return old;
+    }
+
+    @Override
+    public String search(String key) {
+        String value = dictionary.search(key);
+        record(SEARCH, key, null);
+        return value;
+    }
+
+    @Override
+    public String remove(String key) {
+        String old = dictionary.remove(key);
+        record(REMOVE, key, null);
+        return old;
+    }
+
+    @Override
+    public int size() {
+        return dictionary.size();
+    }
+
+    @Override
+    public Iterator<Entry<String, String>> iterator() {
+        return dictionary.iterator();
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return dictionary.getStats();
+    }
+
+    /**
+     * Returns the number of recorded calls.
+     * @return number of records.
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        out.close();
+    }
+
+    @Override
+    public String toString() {
+        return dictionary.toString();
+    }
+}
@@ -0,0 +1,462 @@
+package dictionary;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Dictionary whose entries are partitioned by key hash over several worker JVMs on this machine.
+ * <p>
+ * Every worker is a {@link DictionaryServer} process with its own heap, started by this client
+ * with the classpath of the current JVM; the client talks to it over a loopback socket with the
+ * server protocol. The shard of a key is chosen by jump consistent hashing (Lamping, Veach),
+ * so when the number of shards changes only the keys that have to move are moved ({@link #reshard}).
+ * <p>
+ * {@link #searchAll} sends the keys of all shards pipelined before it reads the first response,
+ * so the shards work in parallel; large calls are split into bounded batches per shard.
+ * The protocol separates key and value by a blank, so keys and values must not contain blanks or line breaks.
+ * Thread-safe: the calls are serialized.
+ */
+public class ShardedDictionary implements Dictionary<String, String>, AutoCloseable {
+
+    private static final Pattern PORT = Pattern.compile("listening on port (\\d+)");
+
+    // requests per shard in flight in searchAll and reshard
+    private static final int BATCH = 1024;
+
+    private static final class Shard {
+        final Process process;
+        final int port;
+        final Socket socket;
+        final BufferedReader in;
+        final BufferedWriter out;
+
+        Shard(Process process, int port) throws IOException {
+            this.process = process;
+            this.port = port;
+            this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        void send(String request) throws IOException {
+            out.write(request);
+            out.write('\n');
+        }
+
+        String receive() throws IOException {
+            String line = in.readLine();
+            if (line == null) {
+                throw new IOException("Worker closed the connection");
+            }
+            if (line.startsWith("ERROR")) {
+                throw new IOException("Worker: " + line);
+            }
+            return line;
+        }
+
+        // second connection to the same worker, closing it does not stop the worker
+        Shard connect() throws IOException {
+            return new Shard(null, port);
+        }
+
+        void close() throws IOException {
+            socket.close();
+            if (process != null) {
+                process.destroy();
+            }
+        }
+    }
+
+    private final String type;
+    private Shard[] shards;
+
+    /**
+     * Starts the workers.
+     * @param shards number of worker JVMs.
+     * @param type implementation of the workers, as in the TUI create command (e.g. OHD).
+     * @throws IOException if a worker can not be started.
+     */
+    public ShardedDictionary(int shards, String type) throws IOException {
+        if (shards < 1) {
+            throw new IllegalArgumentException("At least one shard");
+        }
+        this.type = type;
+        this.shards = new Shard[shards];
+        try {
+            for (int i = 0; i < shards; i++) {
+                this.shards[i] = startWorker();
+            }
+        } catch (IOException e) {
+            closeShards();
+            throw e;
+        }
+    }
+
+    private Shard startWorker() throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                "dictionary.DictionaryServer", "0", type);
+        builder.redirectErrorStream(true);
+        Process process = builder.start();
+        BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line;
+        while ((line = output.readLine()) != null) {
+            Matcher m = PORT.matcher(line);
+            if (m.find()) {
+                // keep draining the output, so the worker never blocks on a full pipe
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        while (output.readLine() != null) {
+                            // ignore
+                        }
+                    } catch (IOException e) {
+                        // worker terminated
+                    }
+                });
+                return new Shard(process, Integer.parseInt(m.group(1)));
+            }
+        }
+        process.destroy();
+        throw new IOException("Worker did not start");
+    }
+
+    /**
+     * Jump consistent hash: maps key to a bucket in [0, buckets); when the number of buckets grows
+     * from n to n + 1, only 1/(n + 1) of the keys move, all of them to the new bucket.
+     */
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    private static int shardOf(String key, int shards) {
+        return jumpHash(Hasher.mix64(key.hashCode()), shards);
+    }
+
+    private static void check(String s) {
+        if (s == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == ' ' || c == '\n' || c == '\r') {
+                throw new IllegalArgumentException("Keys and values must not contain blanks or line breaks: " + s);
+            }
+        }
+    }
+
+    // sends one request and returns the value of the VALUE/NONE response
+    private String call(String key, String request) {
+        Shard shard = shards[shardOf(key, shards.length)];
+        try {
+            shard.send(request);
+            shard.out.flush();
+            return value(shard.receive());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String value(String response) {
+        return response.startsWith("VALUE ") ? response.substring(6) : null;
+    }
+
+    @Override
+    public synchronized String insert(String key, String value) {
+        check(key);
+        check(value);
+        return call(key, "i " + key + " " + value);
+    }
+
+    @Override
+    public synchronized String search(String key) {
+        check(key);
+        return call(key, "s " + key);
+    }
+
+    @Override
+    public synchronized String remove(String key) {
+        check(key);
+        return call(key, "d " + key);
+    }
+
+    /**
+     * Batched search: the keys are grouped by shard and sent in rounds; in every round each shard
+     * gets up to {@value #BATCH} pipelined requests, all of them are sent before the first response
+     * is read, and the responses of each shard are read in request order.
+     * The bounded rounds keep a worker from blocking on responses that are not read yet.
+     */
+    @Override
+    public synchronized void searchAll(String[] keys, String[] out) {
+        if (out.length < keys.length) {
+            throw new IllegalArgumentException("Output array too short");
+        }
+        for (String key : keys) {
+            check(key);
+        }
+        int n = shards.length;
+        // the key indexes of shard s are byShard[start[s]] to byShard[start[s + 1] - 1]
+        int[] start = new int[n + 1];
+        int[] shardOfKey = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            shardOfKey[i] = shardOf(keys[i], n);
+            start[shardOfKey[i] + 1]++;
+        }
+        for (int s = 0; s < n; s++) {
+            start[s + 1] += start[s];
+        }
+        int[] byShard = new int[keys.length];
+        int[] next = Arrays.copyOf(start, n);
+        for (int i = 0; i < keys.length; i++) {
+            byShard[next[shardOfKey[i]]++] = i;
+        }
+        try {
+            int[] sent = Arrays.copyOf(start, n);
+            boolean more = true;
+            while (more) {
+                int[] from = sent.clone();
+                for (int s = 0; s < n; s++) {
+                    int to = Math.min(from[s] + BATCH, start[s + 1]);
+                    for (int k = from[s]; k < to; k++) {
+                        shards[s].send("s " + keys[byShard[k]]);
+                    }
+                    if (to > from[s]) {
+                        shards[s].out.flush();
+                    }
+                    sent[s] = to;
+                }
+                more = false;
+                for (int s = 0; s < n; s++) {
+                    for (int k = from[s]; k < sent[s]; k++) {
+                        out[byShard[k]] = value(shards[s].receive());
+                    }
+                    more |= sent[s] < start[s + 1];
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized int size() {
+        int size = 0;
+        try {
+            for (Shard shard : shards) {
+                shard.send("size");
+                shard.out.flush();
+                size += Integer.parseInt(shard.receive().substring(5));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return size;
+    }
+
+    // all entries of a shard
+    private static List<Entry<String, String>> dump(Shard shard) throws IOException {
+        shard.send("dump");
+        shard.out.flush();
+        List<Entry<String, String>> entries = new ArrayList<>();
+        String line;
+        while (!(line = shard.receive()).equals("END")) {
+            String[] parts = line.split(" ");
+            entries.add(new Entry<>(parts[1], parts[2]));
+        }
+        return entries;
+    }
+
+    // entries of shard s, or null if there is no such shard (any more)
+    private synchronized List<Entry<String, String>> dump(int s) {
+        if (s >= shards.length) {
+            return null;
+        }
+        try {
+            return dump(shards[s]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the entries shard by shard: the entries of a shard are fetched when the iterator
+     * reaches the shard, so at most one shard is held in memory.
+     * The iterator is weakly consistent, changes and {@link #reshard} during the iteration
+     * may or may not be seen.
+     */
+    @Override
+    public Iterator<Entry<String, String>> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            private Iterator<Entry<String, String>> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    List<Entry<String, String>> entries = dump(next);
+                    if (entries == null) {
+                        return false;
+                    }
+                    next++;
+                    current = entries.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Entry<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    public synchronized int getShards() {
+        return shards.length;
+    }
+
+    /**
+     * Changes the number of workers and moves the entries whose shard changes.
+     * With jump consistent hashing, growing from n to m shards only moves keys to the new shards,
+     * shrinking only moves the keys of the removed shards.
+     * <p>
+     * The old shards are processed one at a time: the dump of a shard is read as a stream and the
+     * entries to move are sent in pipelined batches of at most {@value #BATCH} entries, so the client
+     * never holds more than one batch. The moved keys are deleted from the source over a second
+     * connection while its dump is still being read.
+     * @param newShards new number of workers.
+     * @throws IOException if a worker can not be started or fails.
+     */
+    public synchronized void reshard(int newShards) throws IOException {
+        if (newShards < 1) {
+            throw new IllegalArgumentException("At least one shard");
+        }
+        int oldShards = shards.length;
+        if (newShards == oldShards) {
+            return;
+        }
+        Shard[] resized = Arrays.copyOf(shards, Math.max(oldShards, newShards));
+        for (int i = oldShards; i < newShards; i++) {
+            resized[i] = startWorker();
+        }
+
+        List<Entry<String, String>> batch = new ArrayList<>(BATCH);
+        for (int s = 0; s < oldShards; s++) {
+            Shard source = resized[s];
+            // a removed shard is stopped afterwards, its entries need not be deleted
+            Shard deletes = s < newShards ? source.connect() : null;
+            try {
+                source.send("dump");
+                source.out.flush();
+                String line;
+                while (!(line = source.receive()).equals("END")) {
+                    String[] parts = line.split(" ");
+                    if (shardOf(parts[1], newShards) != s) {
+                        batch.add(new Entry<>(parts[1], parts[2]));
+                        if (batch.size() == BATCH) {
+                            move(batch, resized, newShards, deletes);
+                        }
+                    }
+                }
+                move(batch, resized, newShards, deletes);
+            } finally {
+                if (deletes != null) {
+                    deletes.close();
+                }
+            }
+        }
+        for (int s = newShards; s < oldShards; s++) {
+            resized[s].close();
+        }
+        shards = Arrays.copyOf(resized, newShards);
+    }
+
+    // inserts the batch into its new shards, then deletes it from the source (if not null) and clears it;
+    // copy first, then delete, so no entry is lost if a worker fails in between
+    private static void move(List<Entry<String, String>> batch, Shard[] shards, int newShards, Shard source)
+            throws IOException {
+        boolean[] used = new boolean[newShards];
+        for (Entry<String, String> e : batch) {
+            int target = shardOf(e.getKey(), newShards);
+            shards[target].send("i " + e.getKey() + " " + e.getValue());
+            used[target] = true;
+        }
+        for (int s = 0; s < newShards; s++) {
+            if (used[s]) {
+                shards[s].out.flush();
+            }
+        }
+        // the responses of every shard arrive in request order
+        for (Entry<String, String> e : batch) {
+            shards[shardOf(e.getKey(), newShards)].receive();
+        }
+        if (source != null) {
+            for (Entry<String, String> e : batch) {
+                source.send("d " + e.getKey());
+            }
+            source.out.flush();
+            for (int i = 0; i < batch.size(); i++) {
+                source.receive();
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Stops all workers.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeShards();
+    }
+
+    // not overridable, as it is also called by the constructor
+    private void closeShards() throws IOException {
+        IOException failure = null;
+        for (Shard shard : shards) {
+            if (shard != null) {
+                try {
+                    shard.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<String, String> e : this) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
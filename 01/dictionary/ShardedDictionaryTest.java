@@ -0,0 +1,97 @@
+package dictionary;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test for ShardedDictionary with worker JVMs started from the current classpath.
+ * <p>
+ * Checks single calls, a searchAll that is much larger than the socket buffers
+ * (it must not block the workers) and growing and shrinking with reshard.
+ * The contents are checked against a reference map; a failed check throws an AssertionError.
+ */
+public class ShardedDictionaryTest {
+
+    /**
+     * @param args optional number of keys for the large searchAll (default 200000).
+     */
+    public static void main(String[] args) throws Exception {
+        int searchKeys = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        Map<String, String> ref = new HashMap<>();
+        try (ShardedDictionary dict = new ShardedDictionary(2, "OHD")) {
+            testSingleCalls(dict, ref);
+            testLargeSearchAll(dict, ref, searchKeys);
+            for (int shards : new int[]{5, 3, 1, 4}) {
+                dict.reshard(shards);
+                checkContents(dict, ref, "after reshard to " + shards);
+            }
+        }
+        System.out.println("ShardedDictionary ok");
+    }
+
+    private static void testSingleCalls(ShardedDictionary dict, Map<String, String> ref) {
+        Random rnd = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            String key = "k" + rnd.nextInt(10_000);
+            int op = rnd.nextInt(10);
+            if (op < 6) {
+                String value = "v" + i;
+                check(same(dict.insert(key, value), ref.put(key, value)), "insert " + key);
+            } else if (op < 8) {
+                check(same(dict.remove(key), ref.remove(key)), "remove " + key);
+            } else {
+                check(same(dict.search(key), ref.get(key)), "search " + key);
+            }
+        }
+        checkContents(dict, ref, "after single calls");
+    }
+
+    // requests and responses of several 100 MB: far more than fits into the socket buffers of client and worker
+    private static void testLargeSearchAll(ShardedDictionary dict, Map<String, String> ref, int n) {
+        String prefix = "k".repeat(500);
+        String padding = "w".repeat(2000);
+        for (int i = 0; i < 1000; i++) {
+            String value = padding + i;
+            check(same(dict.insert(prefix + i, value), ref.put(prefix + i, value)), "insert " + prefix + i);
+        }
+        String[] keys = new String[n];
+        for (int i = 0; i < n; i++) {
+            // three hits with long values, one miss
+            keys[i] = prefix + (i % 4 == 0 ? "m" + i : i % 1000);
+        }
+        String[] out = new String[n];
+        dict.searchAll(keys, out);
+        for (int i = 0; i < n; i++) {
+            check(same(out[i], ref.get(keys[i])), "searchAll " + keys[i]);
+        }
+        // the connections must still be usable
+        checkContents(dict, ref, "after large searchAll");
+    }
+
+    private static void checkContents(ShardedDictionary dict, Map<String, String> ref, String when) {
+        check(dict.size() == ref.size(), "size " + dict.size() + ", expected " + ref.size() + " " + when);
+        int n = 0;
+        for (Dictionary.Entry<String, String> e : dict) {
+            check(same(e.getValue(), ref.get(e.getKey())), "iterator " + e.getKey() + " " + when);
+            n++;
+        }
+        check(n == ref.size(), "iterated " + n + ", expected " + ref.size() + " " + when);
+        String[] keys = ref.keySet().toArray(new String[0]);
+        String[] out = new String[keys.length];
+        dict.searchAll(keys, out);
+        for (int i = 0; i < keys.length; i++) {
+            check(same(out[i], ref.get(keys[i])), "searchAll " + keys[i] + " " + when);
+        }
+    }
+
+    private static boolean same(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
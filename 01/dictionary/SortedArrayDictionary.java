@@ -1,6 +1,9 @@
 package dictionary;
 
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
 
 // SortedArrayDictionary (siehe Web-Seite) implementiert ein Dictionary mit einem Feld, in dem
 // die Datensätze lückenlos und sortiert gespeichert werden. Für die Suche wird binäre Suche
@@ -14,6 +17,14 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
     private int size;
     private static final char CAPACITY = 16;
 
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("SortedArrayDictionary", null);
+    private final DictionaryStats.Counter shifts = stats == null ? null : stats.counter("shifts");
+    private final DictionaryStats.Histogram comparisons = stats == null ? null : stats.histogram("comparisons per search");
+
+    // learned index over the String keys (see freeze), null if not built or dropped by a mutation
+    private LearnedIndex learnedIndex = null;
+
 
     public SortedArrayDictionary() {
         this.size = 0;
@@ -25,7 +36,7 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
 
         // searchKey returns -1 if the key was not found,
         // else it returns the index of the key
-        int i = searchKey(key);
+        int i = searchKey(key, null);
 
         // if it's not -1, the key was found and update the value
         if(i != -1) {
@@ -35,10 +46,13 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
         }
 
         // new key insert
+        this.learnedIndex = null;
         if (this.size == this.data.length) {
             // resize array
+            long start = DictionaryStats.ENABLED ? System.nanoTime() : 0;
             Entry<K, V>[] newData = new Entry[this.data.length * 2];
             System.arraycopy(this.data, 0, newData, 0, this.data.length);
+            if (DictionaryStats.ENABLED) stats.recordResize(start, this.data.length, newData.length, this.size);
             this.data = newData;
         }
 
@@ -48,6 +62,7 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
             this.data[j + 1] = this.data[j];
             j--;
         }
+        if (DictionaryStats.ENABLED) shifts.add(this.size - 1 - j);
 
         this.data[j + 1] = new Entry<>(key, value);
         this.size++;
@@ -58,64 +73,103 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
     // binary search
     @Override
     public V search(K key) {
-        int low = 0;
-        int high = this.size - 1;
+        int i = searchKey(key, comparisons);
+        return i == -1 ? null : this.data[i].getValue();
+    }
 
-        while (low <= high) {
-            int mid = (low + high) / 2;
-            int comp = this.data[mid].getKey().compareTo(key);
-            if (comp < 0) {
-                low = mid + 1;
-            } else if (comp > 0) {
-                high = mid - 1;
-            } else {
-                return this.data[mid].getValue();
-            }
+    /**
+     * Builds a learned index for the current keys (String keys only, otherwise nothing happens).
+     * <p>
+     * A piecewise linear model over the first four chars of the keys predicts the position of a key,
+     * and the binary search only runs within the error window of the prediction.
+     * On a static word list this needs far fewer String comparisons than a binary search over the whole array.
+     * The index is dropped by the next insert of a new key or remove, so it pays off for frozen dictionaries.
+     * Value updates of existing keys keep it.
+     */
+    public void freeze() {
+        freeze(16);
+    }
+
+    /**
+     * Builds a learned index whose linear segments predict every position within maxError.
+     * @param maxError maximum error of a segment, smaller values give more segments.
+     */
+    public void freeze(int maxError) {
+        if (maxError < 0) {
+            throw new IllegalArgumentException("maxError must not be negative");
         }
-        // key not found
-        return null;
+        this.learnedIndex = LearnedIndex.build(this.data, this.size, maxError);
     }
 
+    /**
+     * Returns true if a learned index is built (see freeze).
+     * @return true if searches use the learned index.
+     */
+    public boolean isFrozen() {
+        return this.learnedIndex != null;
+    }
 
-    // binary search for key
-    private int searchKey(K key) {
+    // binary search for key, within the window of the learned index if there is one;
+    // the number of comparisons is recorded in histogram, if it is not null
+    private int searchKey(K key, DictionaryStats.Histogram histogram) {
         int low = 0;
         int high = this.size - 1;
 
+        if (this.learnedIndex != null && key instanceof CharSequence) {
+            long window = this.learnedIndex.window((CharSequence) key);
+            if (window == -1) {
+                if (DictionaryStats.ENABLED && histogram != null) histogram.record(0);
+                return -1;
+            }
+            low = (int) (window >>> 32);
+            high = (int) window;
+        }
+
+        int count = 0;
         while (low <= high) {
             int mid = (low + high) / 2;
             int comp = this.data[mid].getKey().compareTo(key);
+            count++;
             if (comp < 0) {
                 low = mid + 1;
             } else if (comp > 0) {
                 high = mid - 1;
             } else {
+                if (DictionaryStats.ENABLED && histogram != null) histogram.record(count);
                 return mid;
             }
         }
         // key not found
+        if (DictionaryStats.ENABLED && histogram != null) histogram.record(count);
         return -1;
     }
 
     @Override
     public V remove(K key) {
-        int i = searchKey(key);
+        int i = searchKey(key, null);
 
         if (i == -1) {
             // key not found
             return null;
         } else {
             V value = this.data[i].getValue();
+            this.learnedIndex = null;
             // shift elements to the left
             for (int j = i; j < this.size - 1; j++) {
                 this.data[j] = this.data[j + 1];
             }
+            if (DictionaryStats.ENABLED) shifts.add(this.size - 1 - i);
             this.data[this.size - 1] = null;
             this.size--;
             return value;
         }
     }
 
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
+
     @Override
     // returns how many entries are in the Array
     public int size() {
@@ -156,4 +210,64 @@ public class SortedArrayDictionary<K extends Comparable<? super K>, V> implement
             }
         };
     }
+
+    /**
+     * Splits by index range, so every part knows its exact size.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return new IndexSpliterator(0, this.size);
+    }
+
+    private final class IndexSpliterator implements Spliterator<Entry<K, V>> {
+        private int index;
+        private final int fence;
+
+        IndexSpliterator(int index, int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public Spliterator<Entry<K, V>> trySplit() {
+            int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            IndexSpliterator prefix = new IndexSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Entry<K, V>> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(data[index++]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Entry<K, V>> action) {
+            for (; index < fence; index++) {
+                action.accept(data[index]);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return SIZED | SUBSIZED | ORDERED | SORTED | DISTINCT | NONNULL;
+        }
+
+        @Override
+        public Comparator<? super Entry<K, V>> getComparator() {
+            return (a, b) -> a.getKey().compareTo(b.getKey());
+        }
+    }
 }
@@ -0,0 +1,290 @@
+package dictionary;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Implementation of the Dictionary interface as splay tree (top-down splaying, Sleator/Tarjan).
+ * <p>
+ * Every accessed key is rotated to the root, so frequently searched keys stay near the root.
+ * For skewed (Zipf distributed) lookups this gives shorter search paths than the AVL tree,
+ * which keeps every key at the same depth regardless of how often it is searched.
+ * <p>
+ * Splaying writes to the tree on every search. With splayEvery = k only every k-th search
+ * splays, the other searches just walk down the tree; inserts and removes always splay.
+ * Because searches modify the tree, a SplayTreeDictionary must not be searched concurrently,
+ * and a search during an iteration invalidates the iterator.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+public class SplayTreeDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
+
+    private static class Node<K, V> {
+        K key;
+        V value;
+        Node<K, V> left;
+        Node<K, V> right;
+
+        Node(K k, V v) {
+            key = k;
+            value = v;
+        }
+    }
+
+    private Node<K, V> root = null;
+    private int size = 0;
+
+    private final int splayEvery;
+    private int searches = 0;
+
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("SplayTreeDictionary", this::refreshStats);
+    private final DictionaryStats.Counter rotations = stats == null ? null : stats.counter("rotations");
+
+    public SplayTreeDictionary() {
+        this(1);
+    }
+
+    /**
+     * @param splayEvery splay on every splayEvery-th search, 1 splays on every search.
+     */
+    public SplayTreeDictionary(int splayEvery) {
+        if (splayEvery < 1) {
+            throw new IllegalArgumentException("splayEvery must be at least 1");
+        }
+        this.splayEvery = splayEvery;
+    }
+
+    /**
+     * Top-down splay: moves the node with key, or the last node on its search path, to the root.
+     * The left tree collects the nodes smaller than key, the right tree the greater ones.
+     */
+    private Node<K, V> splay(K key, Node<K, V> t) {
+        if (t == null) {
+            return null;
+        }
+        Node<K, V> header = new Node<>(null, null);
+        Node<K, V> leftMax = header;
+        Node<K, V> rightMin = header;
+
+        while (true) {
+            int cmp = key.compareTo(t.key);
+            if (cmp < 0) {
+                if (t.left == null) {
+                    break;
+                }
+                if (key.compareTo(t.left.key) < 0) {
+                    // zig-zig: rotate right
+                    Node<K, V> x = t.left;
+                    t.left = x.right;
+                    x.right = t;
+                    t = x;
+                    if (DictionaryStats.ENABLED) rotations.add(1);
+                    if (t.left == null) {
+                        break;
+                    }
+                }
+                // link right
+                rightMin.left = t;
+                rightMin = t;
+                t = t.left;
+            } else if (cmp > 0) {
+                if (t.right == null) {
+                    break;
+                }
+                if (key.compareTo(t.right.key) > 0) {
+                    // zig-zig: rotate left
+                    Node<K, V> x = t.right;
+                    t.right = x.left;
+                    x.left = t;
+                    t = x;
+                    if (DictionaryStats.ENABLED) rotations.add(1);
+                    if (t.right == null) {
+                        break;
+                    }
+                }
+                // link left
+                leftMax.right = t;
+                leftMax = t;
+                t = t.right;
+            } else {
+                break;
+            }
+        }
+
+        // assemble
+        leftMax.right = t.left;
+        rightMin.left = t.right;
+        t.left = header.right;
+        t.right = header.left;
+        return t;
+    }
+
+    @Override
+    public V search(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        if (++searches < splayEvery) {
+            Node<K, V> p = root;
+            while (p != null) {
+                int cmp = key.compareTo(p.key);
+                if (cmp < 0) {
+                    p = p.left;
+                } else if (cmp > 0) {
+                    p = p.right;
+                } else {
+                    return p.value;
+                }
+            }
+            return null;
+        }
+        searches = 0;
+        root = splay(key, root);
+        return root != null && key.compareTo(root.key) == 0 ? root.value : null;
+    }
+
+    @Override
+    public V insert(K key, V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        if (root == null) {
+            root = new Node<>(key, value);
+            size++;
+            return null;
+        }
+        root = splay(key, root);
+        int cmp = key.compareTo(root.key);
+        if (cmp == 0) {
+            V oldValue = root.value;
+            root.value = value;
+            return oldValue;
+        }
+        // the new node becomes the root, the old root one of its children
+        Node<K, V> n = new Node<>(key, value);
+        if (cmp < 0) {
+            n.left = root.left;
+            n.right = root;
+            root.left = null;
+        } else {
+            n.right = root.right;
+            n.left = root;
+            root.right = null;
+        }
+        root = n;
+        size++;
+        return null;
+    }
+
+    @Override
+    public V remove(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        if (root == null) {
+            return null;
+        }
+        root = splay(key, root);
+        if (key.compareTo(root.key) != 0) {
+            return null;
+        }
+        V oldValue = root.value;
+        if (root.left == null) {
+            root = root.right;
+        } else {
+            // the greatest key of the left subtree has no right child after splaying
+            Node<K, V> right = root.right;
+            root = splay(key, root.left);
+            root.right = right;
+        }
+        size--;
+        return oldValue;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
+
+    // recomputes the depth distribution of all nodes
+    private void refreshStats() {
+        DictionaryStats.Histogram depths = stats.histogram("node depth");
+        depths.clear();
+        Deque<Node<K, V>> nodes = new ArrayDeque<>();
+        Deque<Integer> levels = new ArrayDeque<>();
+        if (root != null) {
+            nodes.push(root);
+            levels.push(0);
+        }
+        int height = -1;
+        while (!nodes.isEmpty()) {
+            Node<K, V> p = nodes.pop();
+            int depth = levels.pop();
+            depths.record(depth);
+            height = Math.max(height, depth);
+            if (p.left != null) {
+                nodes.push(p.left);
+                levels.push(depth + 1);
+            }
+            if (p.right != null) {
+                nodes.push(p.right);
+                levels.push(depth + 1);
+            }
+        }
+        stats.counter("height").set(height);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<K, V> e : this) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * In-order iterator with an explicit stack; the tree may degenerate to a list,
+     * so no recursion is used.
+     */
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new Iterator<>() {
+            private final Deque<Node<K, V>> stack = new ArrayDeque<>();
+
+            {
+                pushLeft(root);
+            }
+
+            private void pushLeft(Node<K, V> p) {
+                for (; p != null; p = p.left) {
+                    stack.push(p);
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("No more elements in dictionary");
+                }
+                Node<K, V> p = stack.pop();
+                pushLeft(p.right);
+                return new Entry<>(p.key, p.value);
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+package dictionary;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe dictionary that partitions the keys by hash over several stripes.
+ * <p>
+ * Every stripe is an ordinary (not thread-safe) dictionary guarded by its own lock,
+ * so operations on keys in different stripes run in parallel.
+ * The iterator copies the entries of one stripe at a time under the stripe lock, when it reaches
+ * the stripe, so it never holds more than one stripe; it is therefore weakly consistent and not ordered.
+ *
+ * @param <K> Key.
+ * @param <V> Value.
+ */
+@SuppressWarnings("unchecked")
+public class StripedDictionary<K extends Comparable<? super K>, V> implements Dictionary<K, V> {
+
+    private final Dictionary<K, V>[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes number of stripes, rounded up to a power of two.
+     * @param factory creates the (empty) dictionary of each stripe.
+     */
+    public StripedDictionary(int stripes, Supplier<? extends Dictionary<K, V>> factory) {
+        int n = 1;
+        while (n < stripes) {
+            n <<= 1;
+        }
+        this.stripes = (Dictionary<K, V>[]) new Dictionary<?, ?>[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = factory.get();
+        }
+        this.mask = n - 1;
+    }
+
+    private Dictionary<K, V> stripe(K key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        // the high bits select the stripe, the stripe dictionaries use the low bits
+        int h = key.hashCode() * 0x9e3779b9;
+        return stripes[(h >>> 16) & mask];
+    }
+
+    @Override
+    public V insert(K key, V value) {
+        Dictionary<K, V> d = stripe(key);
+        synchronized (d) {
+            return d.insert(key, value);
+        }
+    }
+
+    @Override
+    public V search(K key) {
+        Dictionary<K, V> d = stripe(key);
+        synchronized (d) {
+            return d.search(key);
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        Dictionary<K, V> d = stripe(key);
+        synchronized (d) {
+            return d.remove(key);
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (Dictionary<K, V> d : stripes) {
+            synchronized (d) {
+                size += d.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<Entry<K, V>> iterator() {
+        return new Iterator<>() {
+            private int next = 0;
+            private Iterator<Entry<K, V>> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (next == stripes.length) {
+                        return false;
+                    }
+                    List<Entry<K, V>> copy = new ArrayList<>();
+                    copy(stripes[next++], copy);
+                    current = copy.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    /**
+     * Splits the copy of the entries, so the size is exact even with concurrent writers.
+     */
+    @Override
+    public Spliterator<Entry<K, V>> spliterator() {
+        return copy().spliterator();
+    }
+
+    private List<Entry<K, V>> copy() {
+        List<Entry<K, V>> copy = new ArrayList<>();
+        for (Dictionary<K, V> d : stripes) {
+            copy(d, copy);
+        }
+        return copy;
+    }
+
+    private static <K extends Comparable<? super K>, V> void copy(Dictionary<K, V> d, List<Entry<K, V>> copy) {
+        synchronized (d) {
+            for (Entry<K, V> e : d) {
+                copy.add(new Entry<>(e.getKey(), e.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<K, V> e : this) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
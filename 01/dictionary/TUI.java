@@ -78,6 +78,7 @@ public class TUI {
 
         Scanner scanner = new Scanner(System.in);
         Dictionary <String, String> dictionary = null;
+        BKTree fuzzy = null; // fuzzy index over the keys, built on the first f command
 
         while(true) {
             // read in command
@@ -91,6 +92,8 @@ public class TUI {
                 System.out.println("s deutsch             - Search for key");
                 System.out.println("i deutsch englisch    - Insert key value pair");
                 System.out.println("d deutsch             - Delete key");
+                System.out.println("f deutsch [k] [d]     - Fuzzy search: k nearest keys within edit distance d (default 5, 2)");
+                System.out.println("stats                 - Print runtime statistics (-Ddictionary.stats=true)");
                 System.out.println("exit                  - Exit the program");
                 System.out.println();
                 System.out.println("Available implementations:");
@@ -98,6 +101,8 @@ public class TUI {
                 System.out.println("LinkedHashDictionary (LHD)");
                 System.out.println("OpenHashDictionary (OHD)");
                 System.out.println("BinaryTreeDictionary (BTD)");
+                System.out.println("AdaptiveDictionary (AD)");
+                System.out.println("SplayTreeDictionary (SPL)");
                 continue;
             }
 
@@ -114,6 +119,7 @@ public class TUI {
 
             // check if input is create
             if(input.startsWith("create")) {
+                fuzzy = null;
                 String[] parts = input.split(" ");
                 String type = "";
 
@@ -150,6 +156,16 @@ public class TUI {
                         System.out.println("Created new BinaryTreeDictionary");
                         // create new BinaryTreeDictionary
                         break;
+                    case "AD":
+                    case "AdaptiveDictionary":
+                        dictionary = new AdaptiveDictionary<>();
+                        System.out.println("Created new AdaptiveDictionary");
+                        break;
+                    case "SPL":
+                    case "SplayTreeDictionary":
+                        dictionary = new SplayTreeDictionary<>();
+                        System.out.println("Created new SplayTreeDictionary");
+                        break;
                     default:
                         dictionary = new SortedArrayDictionary<>();
                         System.out.println("Created new SortedArrayDictionary by default");
@@ -165,6 +181,7 @@ public class TUI {
                     continue;
                 }
                 read(input, dictionary);
+                fuzzy = null;
                 continue;
             }
 
@@ -182,6 +199,21 @@ public class TUI {
                 continue;
             }
 
+            // check if input is stats (before search, both start with s)
+            if(input.equals("stats")) {
+                if (dictionary == null) {
+                    System.out.println("No dictionary created");
+                    continue;
+                }
+                DictionaryStats stats = dictionary.getStats();
+                if (stats == null) {
+                    System.out.println("Statistics are switched off, start with -Ddictionary.stats=true");
+                } else {
+                    System.out.println(stats);
+                }
+                continue;
+            }
+
             // check if input is search
             if(input.startsWith("s")) {
 
@@ -208,6 +240,33 @@ public class TUI {
                 continue;
             }
 
+            // check if input is fuzzy search
+            if(input.startsWith("f")) {
+                if (dictionary == null) {
+                    System.out.println("No dictionary created");
+                    continue;
+                }
+
+                String[] parts = input.split(" ");
+
+                if(parts.length < 2 || parts.length > 4
+                        || (parts.length > 2 && !parts[2].matches("[0-9]+"))
+                        || (parts.length > 3 && !parts[3].matches("[0-9]+"))) {
+                    System.out.println("Invalid fuzzy search command");
+                    continue;
+                }
+
+                int k = parts.length > 2 ? Integer.parseInt(parts[2]) : 5;
+                int d = parts.length > 3 ? Integer.parseInt(parts[3]) : 2;
+                if (fuzzy == null) {
+                    fuzzy = BKTree.of(dictionary);
+                }
+                for (String key : fuzzy.nearest(parts[1], k, d)) {
+                    System.out.println(key + " = " + dictionary.search(key));
+                }
+                continue;
+            }
+
             // check if input is insert
             if(input.startsWith("i")) {
                 if (dictionary == null) {
@@ -225,6 +284,9 @@ public class TUI {
                 String key = parts[1];
                 String value = parts[2];
                 dictionary.insert(key, value);
+                if (fuzzy != null) {
+                    fuzzy.add(key);
+                }
                 System.out.println("Insert " + key + " " + value);
                 continue;
             }
@@ -246,6 +308,7 @@ public class TUI {
 
                 String key = parts[1];
                 dictionary.remove(key);
+                fuzzy = null; // a BK-tree can not remove words, it is rebuilt on demand
                 System.out.println("Delete " + key);
             }
         }
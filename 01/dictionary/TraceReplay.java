@@ -0,0 +1,231 @@
+package dictionary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Replays a trace of {@link RecordingDictionary} against a Dictionary implementation
+ * and reports throughput and latency percentiles per operation.
+ * <p>
+ * The calls are replayed as fast as possible (the recorded pauses are not reproduced).
+ * With several threads the records are partitioned by key hash, so the calls of one key
+ * keep their order; the dictionary is then a StripedDictionary of the implementation,
+ * unless the implementation is thread-safe itself (COH).
+ */
+public class TraceReplay {
+
+    private final byte[] opcodes;
+    private final String[] keys;
+    private final String[] values;
+    private final int length;
+
+    private TraceReplay(byte[] opcodes, String[] keys, String[] values, int length) {
+        this.opcodes = opcodes;
+        this.keys = keys;
+        this.values = values;
+        this.length = length;
+    }
+
+    /**
+     * Reads a trace file.
+     * @param filename trace file.
+     * @return trace.
+     * @throws IOException if the file can not be read or is no trace.
+     */
+    public static TraceReplay read(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename), 1 << 16))) {
+            if (in.readInt() != RecordingDictionary.MAGIC) {
+                throw new IOException("No dictionary trace: " + filename);
+            }
+            int version = in.readInt();
+            if (version != 1 && version != RecordingDictionary.VERSION) {
+                throw new IOException("Unsupported trace version " + version);
+            }
+            byte[] opcodes = new byte[1024];
+            String[] keys = new String[1024];
+            String[] values = new String[1024];
+            int n = 0;
+            while (true) {
+                int opcode = in.read();
+                if (opcode == -1) {
+                    break;
+                }
+                if (n == opcodes.length) {
+                    opcodes = Arrays.copyOf(opcodes, 2 * n);
+                    keys = Arrays.copyOf(keys, 2 * n);
+                    values = Arrays.copyOf(values, 2 * n);
+                }
+                readVarLong(in);
+                opcodes[n] = (byte) opcode;
+                keys[n] = readString(in, version);
+                if (opcode == RecordingDictionary.INSERT) {
+                    values[n] = readString(in, version);
+                } else if (opcode != RecordingDictionary.SEARCH && opcode != RecordingDictionary.REMOVE) {
+                    throw new IOException("Unknown opcode " + opcode + " in record " + n);
+                }
+                n++;
+            }
+            return new TraceReplay(opcodes, keys, values, n);
+        }
+    }
+
+    static long readVarLong(DataInputStream in) throws IOException {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b == -1) {
+                throw new EOFException("Truncated trace");
+            }
+            v |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return v;
+            }
+        }
+        throw new IOException("Invalid varint");
+    }
+
+    // a string of RecordingDictionary, or writeUTF in version 1
+    private static String readString(DataInputStream in, int version) throws IOException {
+        if (version == 1) {
+            return in.readUTF();
+        }
+        long n = readVarLong(in);
+        if (n == 0) {
+            return null;
+        }
+        if (n - 1 > Integer.MAX_VALUE - 8) {
+            throw new IOException("Invalid string length " + (n - 1));
+        }
+        byte[] bytes = new byte[(int) (n - 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int size() {
+        return length;
+    }
+
+    /**
+     * Replays the trace.
+     * @param dictionary dictionary, must be thread-safe if threads &gt; 1.
+     * @param threads number of threads.
+     * @return latencies per opcode (index INSERT, SEARCH, REMOVE), index 0 holds all.
+     */
+    public LatencyRecorder[] replay(Dictionary<String, String> dictionary, int threads) throws Exception {
+        if (threads <= 1) {
+            return replayPartition(dictionary, 0, 1);
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<LatencyRecorder[]>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int partition = t;
+                results.add(executor.submit(() -> replayPartition(dictionary, partition, threads)));
+            }
+            LatencyRecorder[] total = newRecorders();
+            for (Future<LatencyRecorder[]> f : results) {
+                LatencyRecorder[] r = f.get();
+                for (int i = 0; i < total.length; i++) {
+                    total[i].merge(r[i]);
+                }
+            }
+            return total;
+        }
+    }
+
+    private LatencyRecorder[] replayPartition(Dictionary<String, String> dictionary, int partition, int partitions) {
+        LatencyRecorder[] recorders = newRecorders();
+        for (int i = 0; i < length; i++) {
+            if (partitions > 1 && Math.floorMod(Hasher.mix(Objects.hashCode(keys[i])), partitions) != partition) {
+                continue;
+            }
+            long start = System.nanoTime();
+            switch (opcodes[i]) {
+                case RecordingDictionary.INSERT:
+                    dictionary.insert(keys[i], values[i]);
+                    break;
+                case RecordingDictionary.SEARCH:
+                    dictionary.search(keys[i]);
+                    break;
+                default:
+                    dictionary.remove(keys[i]);
+            }
+            long latency = System.nanoTime() - start;
+            recorders[0].record(latency);
+            recorders[opcodes[i]].record(latency);
+        }
+        return recorders;
+    }
+
+    private static LatencyRecorder[] newRecorders() {
+        LatencyRecorder[] recorders = new LatencyRecorder[4];
+        for (int i = 0; i < recorders.length; i++) {
+            recorders[i] = new LatencyRecorder();
+        }
+        return recorders;
+    }
+
+    /**
+     * Records a trace from a word file or replays a trace.
+     * <pre>
+     * record trace [filename]              reads the file into an OHD and searches every german word once
+     * replay trace [implementation [threads [rounds]]]   default OHD 1 5
+     * </pre>
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 2 && args[0].equals("record")) {
+            String filename = args.length > 2 ? args[2] : "01/dictionary/dtengl.txt";
+            try (RecordingDictionary recorder = new RecordingDictionary(new OpenHashDictionary<>(7), args[1])) {
+                TUI.read("r " + filename, recorder);
+                List<String> german = new ArrayList<>();
+                for (Dictionary.Entry<String, String> e : recorder) {
+                    german.add(e.getKey());
+                }
+                for (String k : german) {
+                    recorder.search(k);
+                }
+                System.out.println("Recorded " + recorder.getRecords() + " calls to " + args[1]);
+            }
+            return;
+        }
+        if (args.length < 2 || !args[0].equals("replay")) {
+            System.out.println("Usage: TraceReplay record trace [filename] | replay trace [implementation [threads [rounds]]]");
+            return;
+        }
+
+        TraceReplay trace = read(args[1]);
+        String type = args.length > 2 ? args[2] : "OHD";
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : 5;
+        System.out.println(trace.size() + " calls, " + type + ", " + threads + " thread(s)");
+
+        // the first rounds warm up the JIT, the last one is reported
+        for (int round = 1; round <= rounds; round++) {
+            Dictionary<String, String> dictionary = threads > 1 && !type.equals("COH")
+                    ? new StripedDictionary<>(64, () -> DictionaryServer.newDictionary(type))
+                    : DictionaryServer.newDictionary(type);
+            long start = System.nanoTime();
+            LatencyRecorder[] latencies = trace.replay(dictionary, threads);
+            long elapsed = System.nanoTime() - start;
+            if (round == rounds) {
+                System.out.println("all:    " + latencies[0].report(elapsed).replace("\n", "\n        "));
+                String[] names = {null, "insert: ", "search: ", "remove: "};
+                for (int i = 1; i < names.length; i++) {
+                    if (latencies[i].getCount() > 0) {
+                        System.out.println(names[i] + latencies[i].report(elapsed).replace("\n", "\n        "));
+                    }
+                }
+            }
+        }
+    }
+}
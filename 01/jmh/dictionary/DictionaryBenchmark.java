@@ -0,0 +1,126 @@
+package dictionary;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the Dictionary implementations.
+ * <p>
+ * Replaces the single-pass {@code DictionaryTest.cpuTime} measurement with forked, warmed-up runs.
+ * The benchmarks are a separate Maven module ({@code 01/jmh/pom.xml}) that compiles them together with
+ * the {@code 01/dictionary} sources, JMH core and the JMH annotation processor.
+ * <p>
+ * Build in {@code 01/jmh} and run from the repository root, e.g.:
+ * <pre>
+ * mvn -f 01/jmh/pom.xml package
+ * java -jar 01/jmh/target/benchmarks.jar DictionaryBenchmark
+ * java -jar 01/jmh/target/benchmarks.jar DictionaryBenchmark -p impl=OHD,LHD -p dataset=full -prof gc
+ * java -cp 01/jmh/target/benchmarks.jar dictionary.DictionaryBenchmark
+ * </pre>
+ * Throughput and sample-time (latency percentiles) modes are measured, {@link #main} adds the GC profiler
+ * for the allocation rate.
+ * The word file is taken from the system property {@code dictionary.file}
+ * (default {@code 01/dictionary/dtengl.txt}, falls back to {@code dictionary/dtengl.txt}).
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// --enable-preview for OffHeapStringDictionary (Foreign Function & Memory API)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "--enable-preview"})
+public class DictionaryBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data extends DictionaryWorkload {
+
+        /**
+         * LHD, OHD, BTD, OFF (OffHeapStringDictionary), AD (AdaptiveDictionary),
+         * SPL (SplayTreeDictionary), SPL8 (SplayTreeDictionary splaying every 8th search),
+         * COH (ConcurrentOpenHashDictionary, the only one that may be run with several threads, e.g. -t 8;
+         * the threads share the filled dictionary, every thread has its own {@link DictionaryWorkload.Cursor}).
+         * SPL against BTD with dataset=full and distribution=zipf compares splaying with AVL on skewed lookups.
+         * The sorted array implementations are measured by {@link SortedArrayBenchmark},
+         * the hash functions by {@link HasherBenchmark}.
+         */
+        @Param({"LHD", "OHD", "BTD", "OFF", "AD", "SPL", "SPL8", "COH"})
+        public String impl;
+
+        /** 8000 (first 8000 lines of dtengl.txt), full (all of dtengl.txt), synthetic1M (random keys) */
+        @Param({"8000", "full", "synthetic1M"})
+        public String dataset;
+
+        /** Key distribution: uniform and zipf set the access pattern, sorted also inserts in key order. */
+        @Param({"uniform", "zipf", "sorted"})
+        public String distribution;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            load(impl, dataset, distribution, "mix");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            unload();
+        }
+    }
+
+    /**
+     * Loads the whole dataset into an empty dictionary (one operation = n inserts).
+     */
+    @Benchmark
+    public int insert(Data d) throws Exception {
+        return d.insertAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchHit(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchHit(c);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchMiss(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchMiss(c);
+    }
+
+    /**
+     * Looks up a sentence-sized batch of keys (half hits, half misses) with one searchAll call.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(DictionaryWorkload.BATCH)
+    public String[] searchBatch(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchBatch(c);
+    }
+
+    /**
+     * Removes a key and inserts it again, so the dictionary keeps its size over the measurement.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String remove(Data d, DictionaryWorkload.Cursor c) {
+        return d.removeInsert(c);
+    }
+
+    @Benchmark
+    public void iterate(Data d, Blackhole bh) {
+        d.iterate(bh);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(DictionaryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,349 @@
+package dictionary;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Data and operations shared by the benchmark states of {@link DictionaryBenchmark},
+ * {@link SortedArrayBenchmark} and {@link HasherBenchmark}.
+ * <p>
+ * A subclass declares the JMH parameters and calls {@link #load} from its trial setup.
+ * The subclass is the benchmark-scoped state shared by all threads; the position in the
+ * access sequence is kept per thread in a {@link Cursor}.
+ */
+public abstract class DictionaryWorkload {
+
+    // size of the precomputed access sequences, power of two
+    private static final int ACCESS_LENGTH = 1 << 20;
+
+    // keys per searchAll call
+    static final int BATCH = 32;
+
+    private String impl;
+    private String hasher;
+
+    String[] keys;
+    String[] values;
+    String[] missing;
+
+    // indexes into keys/missing, in access order
+    int[] access;
+
+    Dictionary<String, String> filled;
+
+    /**
+     * Position in the access sequence and searchAll arrays of one benchmark thread.
+     * Every thread starts at its own offset, so with several threads ({@code -t}) the threads
+     * neither share a contended counter nor search the same keys in lockstep.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        int position;
+
+        final String[] batch = new String[BATCH];
+        final String[] batchOut = new String[BATCH];
+
+        @Setup(Level.Trial)
+        public void setup(ThreadParams thread) {
+            position = (int) ((long) thread.getThreadIndex() * ACCESS_LENGTH / thread.getThreadCount());
+        }
+    }
+
+    /**
+     * Reads or generates the keys and fills a dictionary with them.
+     * @param impl implementation, see {@link #create(String, String)}.
+     * @param dataset 8000 (first 8000 lines of dtengl.txt), full (all of dtengl.txt), synthetic1M (random keys).
+     * @param distribution uniform and zipf set the access pattern, sorted also inserts in key order.
+     * @param hasher hash function of LHD, OHD and COH, see {@link #hasher(String)}.
+     * @throws IOException if the word file can not be read.
+     */
+    void load(String impl, String dataset, String distribution, String hasher) throws IOException {
+        this.impl = impl;
+        this.hasher = hasher;
+
+        switch (dataset) {
+            case "8000":
+                readWords(8000);
+                break;
+            case "full":
+                readWords(Integer.MAX_VALUE);
+                break;
+            case "synthetic1M":
+                synthesize(1_000_000);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + dataset);
+        }
+
+        if (distribution.equals("sorted")) {
+            sortByKey();
+        }
+
+        access = distribution.equals("zipf") ? zipf(keys.length, ACCESS_LENGTH) : uniform(keys.length, ACCESS_LENGTH);
+
+        filled = create(impl, hasher);
+        for (int i = 0; i < keys.length; i++) {
+            filled.insert(keys[i], values[i]);
+        }
+        if (impl.equals("SADL")) {
+            ((SortedArrayDictionary<String, String>) filled).freeze();
+        }
+    }
+
+    /**
+     * Prints the statistics of the filled dictionary, if enabled, and frees it.
+     * @throws Exception if the dictionary can not be closed.
+     */
+    void unload() throws Exception {
+        if (filled.getStats() != null) {
+            System.out.println(filled.getStats());
+        }
+        close(filled);
+    }
+
+    int next(Cursor c) {
+        return access[c.position++ & (ACCESS_LENGTH - 1)];
+    }
+
+    // loads the whole dataset into an empty dictionary
+    int insertAll() throws Exception {
+        Dictionary<String, String> dict = create(impl, hasher);
+        for (int i = 0; i < keys.length; i++) {
+            dict.insert(keys[i], values[i]);
+        }
+        int size = dict.size();
+        close(dict);
+        return size;
+    }
+
+    String searchHit(Cursor c) {
+        return filled.search(keys[next(c)]);
+    }
+
+    String searchMiss(Cursor c) {
+        return filled.search(missing[next(c) % missing.length]);
+    }
+
+    // a sentence-sized batch of keys (half hits, half misses) with one searchAll call
+    String[] searchBatch(Cursor c) {
+        for (int i = 0; i < BATCH; i += 2) {
+            c.batch[i] = keys[next(c)];
+            c.batch[i + 1] = missing[next(c) % missing.length];
+        }
+        filled.searchAll(c.batch, c.batchOut);
+        return c.batchOut;
+    }
+
+    // removes a key and inserts it again, so the dictionary keeps its size over the measurement
+    String removeInsert(Cursor c) {
+        int i = next(c);
+        String v = filled.remove(keys[i]);
+        filled.insert(keys[i], values[i]);
+        return v;
+    }
+
+    void iterate(Blackhole bh) {
+        for (Dictionary.Entry<String, String> e : filled) {
+            bh.consume(e.getValue());
+        }
+    }
+
+    private void readWords(int n) throws IOException {
+        String filename = System.getProperty("dictionary.file", "01/dictionary/dtengl.txt");
+        if (!new java.io.File(filename).exists()) {
+            filename = "dictionary/dtengl.txt";
+        }
+
+        ArrayList<String> german = new ArrayList<>();
+        ArrayList<String> english = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
+            String line;
+            while ((line = br.readLine()) != null && german.size() < n) {
+                String[] parts = line.split(" ");
+                if (parts.length == 2 && seen.add(parts[0])) {
+                    german.add(parts[0]);
+                    english.add(parts[1]);
+                }
+            }
+        }
+
+        keys = german.toArray(new String[0]);
+        values = english.toArray(new String[0]);
+
+        // english words are failed searches, unless they happen to be german keys as well
+        ArrayList<String> miss = new ArrayList<>();
+        for (String e : values) {
+            if (!seen.contains(e)) {
+                miss.add(e);
+            }
+        }
+        missing = miss.toArray(new String[0]);
+    }
+
+    private void synthesize(int n) {
+        Random rnd = new Random(42);
+        Set<String> seen = new HashSet<>(2 * n);
+        keys = new String[n];
+        values = new String[n];
+        int i = 0;
+        while (i < n) {
+            String k = randomWord(rnd);
+            if (seen.add(k)) {
+                keys[i] = k;
+                values[i] = randomWord(rnd);
+                i++;
+            }
+        }
+
+        missing = new String[n];
+        i = 0;
+        while (i < n) {
+            String k = randomWord(rnd);
+            if (!seen.contains(k)) {
+                missing[i++] = k;
+            }
+        }
+    }
+
+    private static String randomWord(Random rnd) {
+        int len = 5 + rnd.nextInt(8);
+        char[] c = new char[len];
+        for (int i = 0; i < len; i++) {
+            c[i] = (char) ('a' + rnd.nextInt(26));
+        }
+        return new String(c);
+    }
+
+    private void sortByKey() {
+        Integer[] order = new Integer[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        java.util.Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+        String[] k = new String[keys.length];
+        String[] v = new String[keys.length];
+        for (int i = 0; i < order.length; i++) {
+            k[i] = keys[order[i]];
+            v[i] = values[order[i]];
+        }
+        keys = k;
+        values = v;
+    }
+
+    /**
+     * Creates an empty dictionary of the given implementation.
+     * New implementations are added here and to the impl parameter of one of the benchmarks.
+     * @param impl short name as used in the TUI create command.
+     * @return empty dictionary.
+     */
+    static Dictionary<String, String> create(String impl) {
+        return create(impl, "mix");
+    }
+
+    /**
+     * Creates an empty dictionary of the given implementation and hash function.
+     * @param impl short name as used in the TUI create command.
+     * @param hasher mix, seeded or plain, only used by LHD, OHD and COH.
+     * @return empty dictionary.
+     */
+    static Dictionary<String, String> create(String impl, String hasher) {
+        switch (impl) {
+            case "SAD":
+            case "SADL":
+                return new SortedArrayDictionary<>();
+            case "LHD":
+                return new LinkedHashDictionary<>(7, hasher(hasher));
+            case "OHD":
+                return new OpenHashDictionary<>(7, hasher(hasher));
+            case "BTD":
+                return new BinaryTreeDictionary<>();
+            case "OFF":
+                return new OffHeapStringDictionary();
+            case "FCD":
+                return new FrontCodedDictionary<>();
+            case "AD":
+                return new AdaptiveDictionary<>();
+            case "SPL":
+                return new SplayTreeDictionary<>();
+            case "SPL8":
+                return new SplayTreeDictionary<>(8);
+            case "COH":
+                return new ConcurrentOpenHashDictionary<>(8, hasher(hasher));
+            default:
+                throw new IllegalArgumentException("Unknown implementation: " + impl);
+        }
+    }
+
+    static Hasher<String> hasher(String name) {
+        switch (name) {
+            case "mix":
+                return Hasher.defaultHasher();
+            case "seeded":
+                return Hasher.seeded();
+            case "plain":
+                return String::hashCode;
+            default:
+                throw new IllegalArgumentException("Unknown hasher: " + name);
+        }
+    }
+
+    // frees dictionaries with off-heap memory
+    static void close(Dictionary<String, String> dict) throws Exception {
+        if (dict instanceof AutoCloseable) {
+            ((AutoCloseable) dict).close();
+        }
+    }
+
+    // uniform random access sequence over [0, n)
+    static int[] uniform(int n, int length) {
+        Random rnd = new Random(7);
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = rnd.nextInt(n);
+        }
+        return a;
+    }
+
+    // zipf (s = 1) distributed access sequence over [0, n), rank r is drawn with probability ~ 1/(r+1)
+    static int[] zipf(int n, int length) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int r = 0; r < n; r++) {
+            sum += 1.0 / (r + 1);
+            cdf[r] = sum;
+        }
+
+        // the hot ranks are spread over the key set, not clustered at the start of the file
+        int[] rankToKey = uniform(n, n);
+        Random rnd = new Random(11);
+        int[] a = new int[length];
+        for (int i = 0; i < length; i++) {
+            double u = rnd.nextDouble() * sum;
+            int low = 0;
+            int high = n - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cdf[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            a[i] = rankToKey[low];
+        }
+        return a;
+    }
+}
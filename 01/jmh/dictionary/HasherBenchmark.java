@@ -0,0 +1,88 @@
+package dictionary;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks comparing the hash functions of the hash dictionaries.
+ * <p>
+ * Only the operations that hash are measured, with uniform access; the other implementations
+ * ignore the hash function and are measured once by {@link DictionaryBenchmark}.
+ * With {@code -Ddictionary.stats=true} the probe and chain length statistics are printed
+ * at the end of each trial.
+ * <pre>
+ * java -jar 01/jmh/target/benchmarks.jar HasherBenchmark -p dataset=synthetic1M
+ * java -jar 01/jmh/target/benchmarks.jar HasherBenchmark -p impl=COH
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HasherBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data extends DictionaryWorkload {
+
+        /** LHD (LinkedHashDictionary), OHD (OpenHashDictionary); COH takes a hash function as well. */
+        @Param({"LHD", "OHD"})
+        public String impl;
+
+        /** 8000 (first 8000 lines of dtengl.txt), full (all of dtengl.txt), synthetic1M (random keys) */
+        @Param({"8000", "full", "synthetic1M"})
+        public String dataset;
+
+        /**
+         * mix (Hasher.defaultHasher), seeded (Hasher.seeded)
+         * or plain (hashCode without mixing, for comparison).
+         */
+        @Param({"mix", "seeded", "plain"})
+        public String hasher;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            load(impl, dataset, "uniform", hasher);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            unload();
+        }
+    }
+
+    /**
+     * Loads the whole dataset into an empty dictionary (one operation = n inserts).
+     */
+    @Benchmark
+    public int insert(Data d) throws Exception {
+        return d.insertAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchHit(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchHit(c);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchMiss(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchMiss(c);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(HasherBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,147 @@
+package dictionary;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks of the primitive int dictionaries against OpenHashDictionary with Integer keys.
+ * <p>
+ * Run like {@link DictionaryBenchmark}, e.g.:
+ * <pre>
+ * java -jar 01/jmh/target/benchmarks.jar IntDictionaryBenchmark -prof gc
+ * </pre>
+ * The GC profiler shows the allocation of the boxed keys and Entry objects of OHD.
+ * OHD and INT store one shared value object, so that only the keys are boxed.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class IntDictionaryBenchmark {
+
+    // size of the precomputed access sequence, power of two
+    private static final int ACCESS_LENGTH = 1 << 20;
+
+    // value of every key in OHD and INT, nothing is allocated for the values
+    static final Object VALUE = new Object();
+
+    @State(Scope.Benchmark)
+    public static class Data {
+
+        /** OHD (OpenHashDictionary&lt;Integer, Object&gt;), INT (IntDictionary&lt;Object&gt;), INTINT (IntIntDictionary) */
+        @Param({"OHD", "INT", "INTINT"})
+        public String impl;
+
+        /** Number of keys, e.g. 199 stations of Scotland Yard. */
+        @Param({"199", "10000", "1000000"})
+        public int n;
+
+        int[] keys;
+        int[] access;
+        int cursor;
+
+        OpenHashDictionary<Integer, Object> ohd;
+        IntDictionary<Object> intDict;
+        IntIntDictionary intIntDict;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random rnd = new Random(42);
+            keys = new int[n];
+            for (int i = 0; i < n; i++) {
+                keys[i] = rnd.nextInt();
+            }
+            access = DictionaryWorkload.uniform(n, ACCESS_LENGTH);
+            switch (impl) {
+                case "OHD":
+                    ohd = new OpenHashDictionary<>(7);
+                    for (int k : keys) {
+                        ohd.insert(k, VALUE);
+                    }
+                    break;
+                case "INT":
+                    intDict = new IntDictionary<>();
+                    for (int k : keys) {
+                        intDict.insert(k, VALUE);
+                    }
+                    break;
+                case "INTINT":
+                    intIntDict = new IntIntDictionary();
+                    for (int k : keys) {
+                        intIntDict.insert(k, k);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown implementation: " + impl);
+            }
+        }
+
+        int nextKey() {
+            return keys[access[cursor++ & (ACCESS_LENGTH - 1)]];
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void search(Data d, Blackhole bh) {
+        int key = d.nextKey();
+        switch (d.impl) {
+            case "OHD":
+                bh.consume(d.ohd.search(key));
+                break;
+            case "INT":
+                bh.consume(d.intDict.search(key));
+                break;
+            default:
+                bh.consume(d.intIntDict.search(key));
+        }
+    }
+
+    /**
+     * Fills an empty dictionary with all keys (one operation = n inserts).
+     */
+    @Benchmark
+    public int insert(Data d) {
+        int[] keys = d.keys;
+        switch (d.impl) {
+            case "OHD": {
+                OpenHashDictionary<Integer, Object> dict = new OpenHashDictionary<>(7);
+                for (int k : keys) {
+                    dict.insert(k, VALUE);
+                }
+                return dict.size();
+            }
+            case "INT": {
+                IntDictionary<Object> dict = new IntDictionary<>();
+                for (int k : keys) {
+                    dict.insert(k, VALUE);
+                }
+                return dict.size();
+            }
+            default: {
+                IntIntDictionary dict = new IntIntDictionary();
+                for (int k : keys) {
+                    dict.insert(k, k);
+                }
+                return dict.size();
+            }
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(IntDictionaryBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
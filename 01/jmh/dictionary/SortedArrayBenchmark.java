@@ -0,0 +1,104 @@
+package dictionary;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for the dictionaries on sorted arrays, same operations as {@link DictionaryBenchmark}.
+ * <p>
+ * Unsorted inserts shift half the array each time, i.e. filling them with a million keys in random order
+ * is O(n^2). Dataset and distribution are therefore one parameter that only lists the combinations
+ * that finish: synthetic1M is only loaded in key order.
+ * <pre>
+ * java -jar 01/jmh/target/benchmarks.jar SortedArrayBenchmark -p workload=full/zipf
+ * </pre>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SortedArrayBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Data extends DictionaryWorkload {
+
+        /**
+         * SAD (SortedArrayDictionary), SADL (SortedArrayDictionary, frozen with a learned index after filling),
+         * FCD (FrontCodedDictionary).
+         */
+        @Param({"SAD", "SADL", "FCD"})
+        public String impl;
+
+        /** dataset/distribution, see {@link DictionaryBenchmark.Data}. */
+        @Param({"8000/uniform", "8000/zipf", "8000/sorted",
+                "full/uniform", "full/zipf", "full/sorted",
+                "synthetic1M/sorted"})
+        public String workload;
+
+        @Setup(Level.Trial)
+        public void setup() throws IOException {
+            String[] w = workload.split("/");
+            load(impl, w[0], w[1], "mix");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            unload();
+        }
+    }
+
+    /**
+     * Loads the whole dataset into an empty dictionary (one operation = n inserts).
+     */
+    @Benchmark
+    public int insert(Data d) throws Exception {
+        return d.insertAll();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchHit(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchHit(c);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String searchMiss(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchMiss(c);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @OperationsPerInvocation(DictionaryWorkload.BATCH)
+    public String[] searchBatch(Data d, DictionaryWorkload.Cursor c) {
+        return d.searchBatch(c);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String remove(Data d, DictionaryWorkload.Cursor c) {
+        return d.removeInsert(c);
+    }
+
+    @Benchmark
+    public void iterate(Data d, Blackhole bh) {
+        d.iterate(bh);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(SortedArrayBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,347 @@
+package dictionary;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Dictionary for String keys and values that keeps all data outside of the Java heap.
+ * <p>
+ * Key and value are stored UTF-8 encoded as one record in chunks of off-heap memory
+ * (Foreign Function and Memory API, final in Java 22, a preview API in Java 21).
+ * The hash index is a separate off-heap long array with linear probing.
+ * Each slot holds the 32 bit hash of the key and a reference to the record, so lookups compare
+ * the hash first and then the raw key bytes; the stored strings are never decoded, except for the returned value.
+ * <p>
+ * Overwritten and removed records are not reclaimed before {@link #close()}.
+ * The memory is freed explicitly by close(), afterwards every operation throws IllegalStateException.
+ * The dictionary is not thread-safe.
+ * <p>
+ * The class lives in its own source root {@code 01/offheap}, so that the other dictionaries build without
+ * {@code --enable-preview}. On Java 21 it is compiled and run with {@code --enable-preview},
+ * e.g. by the benchmark module {@code 01/jmh}.
+ */
+public class OffHeapStringDictionary implements Dictionary<String, String>, AutoCloseable {
+
+    // records: [int keyLength][int valueLength][key bytes][value bytes], 8 byte aligned
+    private static final int HEADER = 8;
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT; // 128 MiB
+    private static final int MAX_CHUNKS = 255;
+
+    private final Arena dataArena = Arena.ofShared();
+    private final ArrayList<MemorySegment> chunks = new ArrayList<>();
+    private long chunkFill = CHUNK_SIZE;  // fill of the last chunk, forces a chunk on the first insert
+    private long dataBytes = 0;
+
+    // index: slot = hash << 32 | (ref + 1), 0 is an empty slot
+    private Arena indexArena;
+    private MemorySegment index;
+    private int mask;
+    private int size = 0;
+
+    private boolean closed = false;
+
+    // statistics, null if switched off
+    private final DictionaryStats stats = DictionaryStats.create("OffHeapStringDictionary", null);
+
+    public OffHeapStringDictionary() {
+        this(16);
+    }
+
+    /**
+     * @param capacity expected number of entries.
+     */
+    public OffHeapStringDictionary(int capacity) {
+        int slots = 16;
+        while (slots < 2 * capacity) {
+            slots <<= 1;
+        }
+        allocateIndex(slots);
+    }
+
+    private void allocateIndex(int slots) {
+        indexArena = Arena.ofShared();
+        index = indexArena.allocate((long) slots * Long.BYTES, Long.BYTES);
+        index.fill((byte) 0);
+        mask = slots - 1;
+    }
+
+    // FNV-1a over the UTF-8 bytes with a final mix, so the index never needs the String
+    private static int hash(byte[] b) {
+        int h = 0x811c9dc5;
+        for (byte x : b) {
+            h = (h ^ (x & 0xff)) * 0x01000193;
+        }
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return h;
+    }
+
+    private MemorySegment chunk(int ref) {
+        return chunks.get(ref >>> (CHUNK_SHIFT - 3));
+    }
+
+    private static long offset(int ref) {
+        return (long) (ref & ((1 << (CHUNK_SHIFT - 3)) - 1)) << 3;
+    }
+
+    private static int ref(long slot) {
+        return (int) slot - 1;
+    }
+
+    private long slot(int i) {
+        return index.getAtIndex(ValueLayout.JAVA_LONG, i);
+    }
+
+    private void setSlot(int i, long slot) {
+        index.setAtIndex(ValueLayout.JAVA_LONG, i, slot);
+    }
+
+    // index of the slot with this key or of the empty slot where it belongs
+    private int find(byte[] key, int h) {
+        MemorySegment keySegment = MemorySegment.ofArray(key);
+        int i = h & mask;
+        long slot;
+        while ((slot = slot(i)) != 0) {
+            if ((int) (slot >>> 32) == h) {
+                int ref = ref(slot);
+                MemorySegment c = chunk(ref);
+                long off = offset(ref);
+                if (c.get(ValueLayout.JAVA_INT, off) == key.length
+                        && MemorySegment.mismatch(c, off + HEADER, off + HEADER + key.length, keySegment, 0, key.length) == -1) {
+                    return i;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    // appends a record and returns its reference
+    private int append(byte[] key, byte[] value) {
+        long length = (HEADER + key.length + value.length + 7) & ~7L;
+        if (length > CHUNK_SIZE) {
+            throw new IllegalArgumentException("Entry too large: " + length + " bytes");
+        }
+        if (chunkFill + length > CHUNK_SIZE) {
+            if (chunks.size() == MAX_CHUNKS) {
+                throw new IllegalStateException("Dictionary is full");
+            }
+            chunks.add(dataArena.allocate(CHUNK_SIZE, Long.BYTES));
+            chunkFill = 0;
+        }
+        MemorySegment c = chunks.get(chunks.size() - 1);
+        long off = chunkFill;
+        c.set(ValueLayout.JAVA_INT, off, key.length);
+        c.set(ValueLayout.JAVA_INT, off + 4, value.length);
+        MemorySegment.copy(key, 0, c, ValueLayout.JAVA_BYTE, off + HEADER, key.length);
+        MemorySegment.copy(value, 0, c, ValueLayout.JAVA_BYTE, off + HEADER + key.length, value.length);
+        chunkFill += length;
+        dataBytes += length;
+        return ((chunks.size() - 1) << (CHUNK_SHIFT - 3)) | (int) (off >>> 3);
+    }
+
+    private String decodeValue(int ref) {
+        MemorySegment c = chunk(ref);
+        long off = offset(ref);
+        int keyLength = c.get(ValueLayout.JAVA_INT, off);
+        int valueLength = c.get(ValueLayout.JAVA_INT, off + 4);
+        return decode(c, off + HEADER + keyLength, valueLength);
+    }
+
+    private String decodeKey(int ref) {
+        MemorySegment c = chunk(ref);
+        long off = offset(ref);
+        return decode(c, off + HEADER, c.get(ValueLayout.JAVA_INT, off));
+    }
+
+    private static String decode(MemorySegment c, long off, int length) {
+        byte[] b = new byte[length];
+        MemorySegment.copy(c, ValueLayout.JAVA_BYTE, off, b, 0, length);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Dictionary is closed");
+        }
+    }
+
+    @Override
+    public String insert(String key, String value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException("Key and value must not be null");
+        }
+        checkOpen();
+
+        if (2 * (size + 1) > mask + 1) {
+            resize();
+        }
+
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int h = hash(k);
+        int i = find(k, h);
+        long slot = slot(i);
+        String oldValue = null;
+        if (slot != 0) {
+            oldValue = decodeValue(ref(slot));
+        } else {
+            size++;
+        }
+        int ref = append(k, value.getBytes(StandardCharsets.UTF_8));
+        setSlot(i, ((long) h << 32) | ((ref + 1) & 0xffffffffL));
+        return oldValue;
+    }
+
+    // doubles the index, the stored hashes make it unnecessary to touch the records
+    private void resize() {
+        long start = DictionaryStats.ENABLED ? System.nanoTime() : 0;
+        Arena oldArena = indexArena;
+        MemorySegment oldIndex = index;
+        int oldSlots = mask + 1;
+
+        allocateIndex(2 * oldSlots);
+        for (int j = 0; j < oldSlots; j++) {
+            long slot = oldIndex.getAtIndex(ValueLayout.JAVA_LONG, j);
+            if (slot != 0) {
+                int i = (int) (slot >>> 32) & mask;
+                while (slot(i) != 0) {
+                    i = (i + 1) & mask;
+                }
+                setSlot(i, slot);
+            }
+        }
+        oldArena.close();
+        if (DictionaryStats.ENABLED) stats.recordResize(start, oldSlots, mask + 1, size);
+    }
+
+    @Override
+    public String search(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        checkOpen();
+
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        long slot = slot(find(k, hash(k)));
+        return slot == 0 ? null : decodeValue(ref(slot));
+    }
+
+    @Override
+    public String remove(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Key must not be null");
+        }
+        checkOpen();
+
+        byte[] k = key.getBytes(StandardCharsets.UTF_8);
+        int i = find(k, hash(k));
+        long slot = slot(i);
+        if (slot == 0) {
+            return null;
+        }
+        String value = decodeValue(ref(slot));
+
+        // backward shift deletion: move following entries of the cluster into the gap
+        int gap = i;
+        int j = (i + 1) & mask;
+        long s;
+        while ((s = slot(j)) != 0) {
+            int home = (int) (s >>> 32) & mask;
+            // entry at j may fill the gap, if its home is not cyclically in (gap, j]
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                setSlot(gap, s);
+                gap = j;
+            }
+            j = (j + 1) & mask;
+        }
+        setSlot(gap, 0);
+        size--;
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of off-heap bytes used by records and index.
+     * Removed and overwritten records are included, see {@link #bytesReserved()} for the allocated memory.
+     * @return used off-heap bytes.
+     */
+    public long bytesUsed() {
+        return dataBytes + indexBytes();
+    }
+
+    /**
+     * Returns the number of off-heap bytes allocated for records and index.
+     * Records are allocated in chunks of 128 MiB, so even a dictionary with one entry reserves a whole chunk.
+     * @return allocated off-heap bytes.
+     */
+    public long bytesReserved() {
+        return chunks.size() * CHUNK_SIZE + indexBytes();
+    }
+
+    private long indexBytes() {
+        return (long) (mask + 1) * Long.BYTES;
+    }
+
+    /**
+     * Frees all off-heap memory of this dictionary.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            indexArena.close();
+            dataArena.close();
+            chunks.clear();
+        }
+    }
+
+    @Override
+    public DictionaryStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public Iterator<Entry<String, String>> iterator() {
+        checkOpen();
+        return new Iterator<>() {
+            private int i = 0;
+
+            @Override
+            public boolean hasNext() {
+                while (i <= mask && slot(i) == 0) {
+                    i++;
+                }
+                return i <= mask;
+            }
+
+            @Override
+            public Entry<String, String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int ref = ref(slot(i++));
+                return new Entry<>(decodeKey(ref), decodeValue(ref));
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Entry<String, String> e : this) {
+            sb.append(e.getKey()).append(": ").append(e.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+}
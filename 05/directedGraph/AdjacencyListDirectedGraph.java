@@ -17,11 +17,17 @@ import java.util.Set;
  * <p>
  * Entspicht einer Adjazenzlisten-Implementierung 
  * mit schnellem Zugriff auf die Knoten.
+ * <p>
+ * Zusätzlich bekommt jeder Knoten eine dichte int-Id (siehe {@link #getVertexIndex()}).
+ * Die Sicht über {@link IntDirectedGraph} (Nachfolger und Vorgänger als Ids mit den
+ * Kantengewichten, sortiert wie in den TreeMaps) wird beim ersten Zugriff nach einer Änderung
+ * einmal aus den TreeMaps im CSR-Format aufgebaut; addEdge bleibt damit bei O(log n).
+ * Graphalgorithmen laufen über die Ids ohne Map-Zugriffe.
  * @author Oliver Bittel
  * @since 19.03.2018
  * @param <V> Knotentyp.
  */
-public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> implements DirectedGraph<V> {
+public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> implements DirectedGraph<V>, IntDirectedGraph {
     // doppelte Map für die Nachfolgerknoten:
     private final Map<V, Map<V, Double>> succ = new TreeMap<>(); 
     
@@ -30,6 +36,12 @@ public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> impleme
 
     private int numberEdge = 0;
 
+    // Knoten-Ids:
+    private final VertexIndex<V> index = new VertexIndex<>();
+
+    // Sicht über die Ids; null, solange sie nach einer Änderung nicht gebraucht wurde:
+    private CsrDirectedGraph<V> ids;
+
 	@Override
 	public boolean addVertex(V v) {
 		if(succ.containsKey(v)) {
@@ -38,6 +50,8 @@ public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> impleme
 
 		succ.put(v, new TreeMap<>());
 		pred.put(v, new TreeMap<>());
+		index.add(v);
+		ids = null;
 		return true;
     }
 
@@ -52,6 +66,8 @@ public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> impleme
 		vSucc.put(w, weight);
 		pred.get(w).put(v, weight);
 
+		ids = null;
+
 		if(!edgeExisted) {
 			numberEdge++;
 			return true;
@@ -130,6 +146,59 @@ public class AdjacencyListDirectedGraph<V extends Comparable<? super V>> impleme
     public int getNumberOfEdges() {
 		return numberEdge;
     }
+
+	/**
+	 * Liefert die Abbildung zwischen Knoten und ihren Ids zurück.
+	 * Die Ids sind 0 bis getNumberOfVertexes()-1 in der Reihenfolge des Einfügens.
+	 * @return Knotenindex
+	 */
+	public VertexIndex<V> getVertexIndex() {
+		return index;
+	}
+
+	@Override
+	public CsrDirectedGraph<V> toCsr() {
+		IndexedGraph<V> ig = IndexedGraph.of(this);
+		return CsrDirectedGraph.of(this, index, ig.order);
+	}
+
+	// Sicht über die Ids, wird nach einer Änderung neu aufgebaut.
+	private CsrDirectedGraph<V> ids() {
+		if (ids == null) {
+			ids = CsrDirectedGraph.of(this, index);
+		}
+		return ids;
+	}
+
+	@Override
+	public int numberOfVertices() {
+		return index.size();
+	}
+
+	@Override
+	public int outDegree(int v) {
+		return ids().outDegree(v);
+	}
+
+	@Override
+	public int successor(int v, int i) {
+		return ids().successor(v, i);
+	}
+
+	@Override
+	public double weight(int v, int i) {
+		return ids().weight(v, i);
+	}
+
+	@Override
+	public int inDegree(int v) {
+		return ids().inDegree(v);
+	}
+
+	@Override
+	public int predecessor(int v, int i) {
+		return ids().predecessor(v, i);
+	}
 	
 	@Override
     public 
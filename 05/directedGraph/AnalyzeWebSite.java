@@ -8,6 +8,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.LineNumberReader;
 import java.util.*;
+import java.util.function.Function;
 
 
 /**
@@ -25,13 +26,17 @@ public class AnalyzeWebSite {
         System.out.println("Anzahl Links: \t" + webSiteGraph.getNumberOfEdges());
         //System.out.println(webSiteGraph);
 
+        // Unveränderliche CSR-Darstellung für die Analysen:
+        CsrDirectedGraph<String> csr = webSiteGraph.toCsr();
+
         // Starke Zusammenhangskomponenten berechnen und ausgeben
-        StrongComponents<String> sc = new StrongComponents<>(webSiteGraph);
+        ParallelStrongComponents<String> sc = new ParallelStrongComponents<>(csr);
         System.out.println(sc.numberOfComp());
+        System.out.println(sc.phaseTimes());
         //System.out.println(sc);
 
         // Page Rank ermitteln und Top-100 ausgeben
-        pageRank(webSiteGraph);
+        pageRank(csr);
     }
 
     /**
@@ -103,6 +108,69 @@ public class AnalyzeWebSite {
             rankTable = newRankTable; // Ranks fur die nächste Iteration aktualisieren
         }
 
+        printRanks(rankTable, g::getPredecessorVertexSet);
+    }
+
+    /**
+     * pageRank auf der CSR-Darstellung: wie {@link #pageRank(DirectedGraph)},
+     * aber mit Ranks in double-Feldern und Vorgängern aus den CSR-Feldern.
+     *
+     * @param g CSR-Darstellung mit Web-Seiten als Knoten und Links als Kanten.
+     */
+    private static <V> void pageRank(CsrDirectedGraph<V> g) {
+        int nI = 10;
+        double alpha = 0.5;
+        int N = g.numberOfVertices();
+
+        if (N == 0) {
+            System.out.println("Graph ist leer.");
+            return;
+        }
+
+        // Initialisierung: rank(P)  = 1/N fuer alle Seiten P.
+        double[] rank = new double[N];
+        Arrays.fill(rank, 1.0 / N);
+        double[] newRank = new double[N];
+
+        // Iteration:
+        for (int i = 0; i < nI; i++) {
+            for (int p = 0; p < N; p++) {
+                double sumIncomingRanks = 0.0;
+                for (int e = g.predOffsets[p]; e < g.predOffsets[p + 1]; e++) {
+                    int q = g.sources[e]; // q sind Seiten, die auf p linken
+                    sumIncomingRanks += rank[q] / (g.offsets[q + 1] - g.offsets[q]);
+                }
+                newRank[p] = (1 - alpha) / N + alpha * sumIncomingRanks;
+            }
+            double[] t = rank;
+            rank = newRank;
+            newRank = t;
+        }
+
+        VertexIndex<V> index = g.getVertexIndex();
+        Map<V, Double> rankTable = new HashMap<>();
+        for (int p = 0; p < N; p++) {
+            rankTable.put(index.vertex(p), rank[p]);
+        }
+        printRanks(rankTable, v -> {
+            int p = index.indexOf(v);
+            List<V> predecessors = new ArrayList<>();
+            for (int e = g.predOffsets[p]; e < g.predOffsets[p + 1]; e++) {
+                predecessors.add(index.vertex(g.sources[e]));
+            }
+            return predecessors;
+        });
+    }
+
+    /**
+     * Gibt die Ranks aus: bei kleinen Web-Sites alle, sonst die Top 100
+     * und die Vorgänger der Top-Seite.
+     *
+     * @param rankTable Rank jeder Seite.
+     * @param predecessors liefert zu einer Seite die Seiten, die auf sie linken.
+     */
+    private static <V> void printRanks(Map<V, Double> rankTable, Function<V, Collection<V>> predecessors) {
+        int N = rankTable.size();
         boolean isSmallWebsite = N < 100;
 
         if (isSmallWebsite) {
@@ -139,12 +207,12 @@ public class AnalyzeWebSite {
                 double topRank = topEntry.getValue();
                 System.out.printf("\nTop-Seite (%s) mit Rank %.8f und ihren Vorgängern:%n", topPage, topRank);
 
-                Set<V> predecessors = g.getPredecessorVertexSet(topPage);
-                if (predecessors.isEmpty()) {
+                Collection<V> topPredecessors = predecessors.apply(topPage);
+                if (topPredecessors.isEmpty()) {
                     System.out.println("Die Top-Seite hat keine direkten Vorgänger im Graphen.");
                 } else {
                     List<Map.Entry<V, Double>> predecessorRanks = new ArrayList<>();
-                    for (V pred : predecessors) {
+                    for (V pred : topPredecessors) {
                         predecessorRanks.add(Map.entry(pred, rankTable.getOrDefault(pred, 0.0)));
                     }
                     predecessorRanks.sort(Map.Entry.<V, Double>comparingByValue().reversed());
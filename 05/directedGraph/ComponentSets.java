@@ -0,0 +1,115 @@
+package directedGraph;
+
+import java.util.*;
+
+/**
+ * Ergebnis einer Zerlegung in Komponenten: Komponentennummer jedes Knotens als int-Feld
+ * und die Knoten jeder Komponente als Abschnitt eines int-Felds.
+ * @param <V> Knotentyp.
+ */
+final class ComponentSets<V> {
+	private final VertexIndex<V> index;
+
+	// Komponente jedes Knotens (über die Id):
+	private final int[] comp;
+	private final int numberOfComp;
+
+	// Knoten der Komponente i: members[compStart[i]] bis members[compStart[i+1]-1]
+	private final int[] compStart;
+	private final int[] members;
+
+	/**
+	 * @param index Abbildung zwischen Ids und Knoten.
+	 * @param comp Komponente jedes Knotens, 0 bis numberOfComp-1.
+	 * @param numberOfComp Anzahl der Komponenten.
+	 * @param order alle Ids; innerhalb einer Komponente werden die Knoten in dieser Reihenfolge geführt.
+	 */
+	ComponentSets(VertexIndex<V> index, int[] comp, int numberOfComp, int[] order) {
+		this.index = index;
+		this.comp = comp;
+		this.numberOfComp = numberOfComp;
+		compStart = new int[numberOfComp + 1];
+		for (int c : comp) {
+			compStart[c + 1]++;
+		}
+		for (int i = 0; i < numberOfComp; i++) {
+			compStart[i + 1] += compStart[i];
+		}
+		members = new int[comp.length];
+		int[] next = Arrays.copyOf(compStart, numberOfComp);
+		for (int v : order) {
+			members[next[comp[v]]++] = v;
+		}
+	}
+
+	int numberOfComp() {
+		return numberOfComp;
+	}
+
+	// nicht modifizierbare Sicht auf die Knoten der Komponente i, null falls es sie nicht gibt
+	Set<V> getComp(int i) {
+		if (i < 0 || i >= numberOfComp) {
+			return null;
+		}
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new Iterator<>() {
+					private int k = compStart[i];
+
+					@Override
+					public boolean hasNext() {
+						return k < compStart[i + 1];
+					}
+
+					@Override
+					public V next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						return index.vertex(members[k++]);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return compStart[i + 1] - compStart[i];
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public boolean contains(Object o) {
+				int v = index.indexOf((V) o);
+				return v >= 0 && comp[v] == i;
+			}
+		};
+	}
+
+	int getCompOf(V v) {
+		int id = index.indexOf(v);
+		if (id < 0) {
+			throw new IllegalArgumentException("Vertex does not exist: " + v);
+		}
+		return comp[id];
+	}
+
+	@Override
+	public String toString() {
+		if (numberOfComp == 0) {
+			return "No strongly connected components found.";
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < numberOfComp; i++) {
+			sb.append("Component ").append(i).append(": ");
+			for (int k = compStart[i]; k < compStart[i + 1]; k++) {
+				if (k > compStart[i]) {
+					sb.append(", ");
+				}
+				sb.append(index.vertex(members[k]));
+			}
+			sb.append("\n");
+		}
+		return sb.toString().trim();
+	}
+}
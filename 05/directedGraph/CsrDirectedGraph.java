@@ -0,0 +1,219 @@
+package directedGraph;
+
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Unveränderliche Momentaufnahme eines gerichteten Graphen im CSR-Format (compressed sparse row).
+ * <p>
+ * Die Knoten haben die Ids 0 bis numberOfVertices()-1; welcher Knoten welche Id hat,
+ * liefert {@link #getVertexIndex()}. Die Nachfolger von v stehen in targets[offsets[v]] bis targets[offsets[v+1]-1],
+ * die Kantengewichte an denselben Positionen in weights; die Vorgänger von v stehen entsprechend in
+ * sources[predOffsets[v]] bis sources[predOffsets[v+1]-1]. Nachfolger und Vorgänger sind wie im
+ * Ausgangsgraphen geordnet.
+ * <p>
+ * Pro Kante werden damit 12 Byte (Ziel und Gewicht) plus 4 Byte für die Vorgängerliste benötigt.
+ * @param <V> Knotentyp.
+ */
+public final class CsrDirectedGraph<V> implements IntDirectedGraph {
+	private final VertexIndex<V> index;
+	final int[] offsets;
+	final int[] targets;
+	final double[] weights;
+	final int[] predOffsets;
+	final int[] sources;
+
+	private CsrDirectedGraph(VertexIndex<V> index, int[] offsets, int[] targets, double[] weights,
+			int[] predOffsets, int[] sources) {
+		this.index = index;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.weights = weights;
+		this.predOffsets = predOffsets;
+		this.sources = sources;
+	}
+
+	/**
+	 * Erzeugt die CSR-Darstellung von g über die Schnittstelle DirectedGraph.
+	 * @param g gerichteter Graph.
+	 * @return CSR-Darstellung von g
+	 */
+	static <V> CsrDirectedGraph<V> of(DirectedGraph<V> g) {
+		VertexIndex<V> index = new VertexIndex<>();
+		for (V v : g.getVertexSet()) {
+			index.add(v);
+		}
+		return of(g, index);
+	}
+
+	/**
+	 * Erzeugt die CSR-Darstellung von g mit vorgegebenen Ids.
+	 * @param g gerichteter Graph.
+	 * @param index Ids aller Knoten von g.
+	 * @return CSR-Darstellung von g
+	 */
+	static <V> CsrDirectedGraph<V> of(DirectedGraph<V> g, VertexIndex<V> index) {
+		int n = index.size();
+		int m = g.getNumberOfEdges();
+		int[] offsets = new int[n + 1];
+		int[] targets = new int[m];
+		double[] weights = new double[m];
+		int[] predOffsets = new int[n + 1];
+		int[] sources = new int[m];
+		int e = 0;
+		int f = 0;
+		for (int v = 0; v < n; v++) {
+			V x = index.vertex(v);
+			for (V y : g.getSuccessorVertexSet(x)) {
+				targets[e] = index.indexOf(y);
+				weights[e++] = g.getWeight(x, y);
+			}
+			offsets[v + 1] = e;
+			for (V y : g.getPredecessorVertexSet(x)) {
+				sources[f++] = index.indexOf(y);
+			}
+			predOffsets[v + 1] = f;
+		}
+		return new CsrDirectedGraph<>(index, offsets, targets, weights, predOffsets, sources);
+	}
+
+	/**
+	 * Erzeugt die CSR-Darstellung eines Graphen über Ids.
+	 * @param g Graph über Ids.
+	 * @param index Abbildung zwischen den Ids von g und den Knoten.
+	 * @param order alle Ids von g; order[k] bekommt in der CSR-Darstellung die Id k.
+	 * @return CSR-Darstellung von g
+	 */
+	static <V> CsrDirectedGraph<V> of(IntDirectedGraph g, VertexIndex<V> index, int[] order) {
+		int n = order.length;
+		int[] newId = new int[n];
+		VertexIndex<V> newIndex = new VertexIndex<>();
+		for (int k = 0; k < n; k++) {
+			newId[order[k]] = k;
+			newIndex.add(index.vertex(order[k]));
+		}
+		int[] offsets = new int[n + 1];
+		int[] predOffsets = new int[n + 1];
+		for (int k = 0; k < n; k++) {
+			offsets[k + 1] = offsets[k] + g.outDegree(order[k]);
+			predOffsets[k + 1] = predOffsets[k] + g.inDegree(order[k]);
+		}
+		int[] targets = new int[offsets[n]];
+		double[] weights = new double[offsets[n]];
+		int[] sources = new int[predOffsets[n]];
+		for (int k = 0; k < n; k++) {
+			int v = order[k];
+			int e = offsets[k];
+			for (int i = 0; i < g.outDegree(v); i++) {
+				targets[e + i] = newId[g.successor(v, i)];
+				weights[e + i] = g.weight(v, i);
+			}
+			int f = predOffsets[k];
+			for (int i = 0; i < g.inDegree(v); i++) {
+				sources[f + i] = newId[g.predecessor(v, i)];
+			}
+		}
+		return new CsrDirectedGraph<>(newIndex, offsets, targets, weights, predOffsets, sources);
+	}
+
+	/**
+	 * Erzeugt den von vertices induzierten Teilgraphen; vertices[i] bekommt die Id i.
+	 * Nachfolger und Vorgänger bleiben wie in diesem Graphen geordnet.
+	 * @param vertices Ids der Knoten des Teilgraphen, ohne Duplikate.
+	 * @param member liefert für eine Id dieses Graphen, ob der Knoten zum Teilgraphen gehört.
+	 * @param local Arbeitsfeld der Länge numberOfVertices(); local[vertices[i]] wird auf i gesetzt.
+	 * @return Teilgraph mit den Knoten aus vertices und allen Kanten zwischen ihnen.
+	 */
+	CsrDirectedGraph<V> subgraph(int[] vertices, IntPredicate member, int[] local) {
+		int size = vertices.length;
+		VertexIndex<V> subIndex = new VertexIndex<>();
+		for (int i = 0; i < size; i++) {
+			local[vertices[i]] = i;
+			subIndex.add(index.vertex(vertices[i]));
+		}
+		int[] subOffsets = new int[size + 1];
+		int[] subPredOffsets = new int[size + 1];
+		for (int i = 0; i < size; i++) {
+			int v = vertices[i];
+			subOffsets[i + 1] = subOffsets[i] + count(offsets, targets, v, member);
+			subPredOffsets[i + 1] = subPredOffsets[i] + count(predOffsets, sources, v, member);
+		}
+		int[] subTargets = new int[subOffsets[size]];
+		double[] subWeights = new double[subOffsets[size]];
+		int[] subSources = new int[subPredOffsets[size]];
+		for (int i = 0; i < size; i++) {
+			int v = vertices[i];
+			int k = subOffsets[i];
+			for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+				if (member.test(targets[e])) {
+					subTargets[k] = local[targets[e]];
+					subWeights[k++] = weights[e];
+				}
+			}
+			k = subPredOffsets[i];
+			for (int e = predOffsets[v]; e < predOffsets[v + 1]; e++) {
+				if (member.test(sources[e])) {
+					subSources[k++] = local[sources[e]];
+				}
+			}
+		}
+		return new CsrDirectedGraph<>(subIndex, subOffsets, subTargets, subWeights, subPredOffsets, subSources);
+	}
+
+	// Anzahl der Nachbarn von v in off/adj, die zum Teilgraphen gehören
+	private static int count(int[] off, int[] adj, int v, IntPredicate member) {
+		int d = 0;
+		for (int e = off[v]; e < off[v + 1]; e++) {
+			if (member.test(adj[e])) {
+				d++;
+			}
+		}
+		return d;
+	}
+
+	/**
+	 * Liefert die Abbildung zwischen Knoten und ihren Ids zurück.
+	 * @return Knotenindex
+	 */
+	public VertexIndex<V> getVertexIndex() {
+		return index;
+	}
+
+	/**
+	 * Liefert Anzahl der Kanten im Graph zurück.
+	 * @return Kantenzahl.
+	 */
+	public int numberOfEdges() {
+		return targets.length;
+	}
+
+	@Override
+	public int numberOfVertices() {
+		return offsets.length - 1;
+	}
+
+	@Override
+	public int outDegree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	@Override
+	public int successor(int v, int i) {
+		return targets[offsets[v] + Objects.checkIndex(i, outDegree(v))];
+	}
+
+	@Override
+	public double weight(int v, int i) {
+		return weights[offsets[v] + Objects.checkIndex(i, outDegree(v))];
+	}
+
+	@Override
+	public int inDegree(int v) {
+		return predOffsets[v + 1] - predOffsets[v];
+	}
+
+	@Override
+	public int predecessor(int v, int i) {
+		return sources[predOffsets[v] + Objects.checkIndex(i, inDegree(v))];
+	}
+}
@@ -13,50 +13,56 @@ import java.util.*;
  */
 public class DepthFirstOrder<V> {
 
-    private final List<V> preOrder = new LinkedList<>();
-    private final List<V> postOrder = new LinkedList<>();
-    private final DirectedGraph<V> myGraph;
+    private final List<V> preOrder = new ArrayList<>();
+    private final List<V> postOrder = new ArrayList<>();
     private int numberOfDFTrees = 0;
-    private Set<V> visited;
 	// ...
 
     /**
      * Führt eine Tiefensuche für g durch.
+     * Die Suche läuft iterativ über die int-Ids der Knoten (siehe {@link DepthFirstSearch}).
      *
      * @param g gerichteter Graph.
      */
     public DepthFirstOrder(DirectedGraph<V> g) {
-        myGraph = g;
-        visited = new HashSet<>();
-
-        // Durchlaufe alle Knoten des Graphen.
-        // Die Reihenfolge der Knoten wird durch getVertexSet() bestimmt.
-
-        for(V v : myGraph.getVertexSet()){
-            if(!visited.contains(v)){
-                dfs(v);
-                numberOfDFTrees++;
-            }
-        }
+        this(IndexedGraph.of(g));
     }
 
     /**
-     * Die eigentliche Tiefensuche.
-     * @param v Startknoten der aktuellen Suche.
+     * Führt eine Tiefensuche für die CSR-Darstellung g durch;
+     * die Knoten werden in der Reihenfolge ihrer Ids durchlaufen.
+     *
+     * @param g CSR-Darstellung eines gerichteten Graphen.
      */
-    private void dfs(V v){
-        visited.add(v);
-        preOrder.add(v);
+    public DepthFirstOrder(CsrDirectedGraph<V> g) {
+        this(IndexedGraph.of(g));
+    }
 
-        for (V w : myGraph.getSuccessorVertexSet(v)) {
-            if (!visited.contains(w)){
-               dfs(w);
+    private DepthFirstOrder(IndexedGraph<V> ig) {
+        VertexIndex<V> index = ig.index;
+        DepthFirstSearch dfs = new DepthFirstSearch(ig.graph);
+        DepthFirstSearch.Visitor visitor = new DepthFirstSearch.Visitor() {
+            @Override
+            public void preOrder(int v) {
+                preOrder.add(index.vertex(v));
             }
-        }
-        postOrder.add(v);
-    }
 
+            @Override
+            public void postOrder(int v) {
+                postOrder.add(index.vertex(v));
+            }
+        };
+
+        // Durchlaufe alle Knoten des Graphen.
+        // Die Reihenfolge der Knoten wird durch getVertexSet() bestimmt.
 
+        for(int v : ig.order){
+            if(!dfs.isVisited(v)){
+                dfs.search(v, visitor);
+                numberOfDFTrees++;
+            }
+        }
+    }
 
     /**
      * Liefert eine nicht modifizierbare Liste (unmodifiable view) mit einer
@@ -0,0 +1,185 @@
+package directedGraph;
+
+import java.util.Objects;
+
+/**
+ * Iterative Tiefensuche über einen {@link IntDirectedGraph}.
+ * <p>
+ * Statt Rekursion wird ein expliziter Stack aus Knoten mit je einem Cursor auf den nächsten
+ * zu besuchenden Nachbarn verwendet. Die Suchtiefe ist damit nur durch die Knotenzahl
+ * begrenzt und nicht durch die Größe des Thread-Stacks.
+ * Pro Knoten werden 12 Byte benötigt (Zustand, Stack, Cursor).
+ * <p>
+ * Die Algorithmen werden über einen {@link Visitor} an die Suche angeschlossen;
+ * jede Kante wird genau einmal gemeldet, als Baumkante (preOrder des Ziels),
+ * Rückwärtskante oder Vorwärts-/Querkante.
+ * Mit backward = true folgt die Suche den Vorgängern statt den Nachfolgern,
+ * d.h. sie durchläuft den invertierten Graphen, ohne ihn zu bauen.
+ */
+public final class DepthFirstSearch {
+
+	/**
+	 * Callbacks der Tiefensuche.
+	 */
+	public interface Visitor {
+		/**
+		 * Wird aufgerufen, wenn v zum ersten Mal besucht und auf den Stack gelegt wird.
+		 * @param v Knoten
+		 */
+		default void preOrder(int v) {
+		}
+
+		/**
+		 * Wird aufgerufen, wenn alle Nachbarn von v abgearbeitet sind und v den Stack verlässt.
+		 * @param v Knoten
+		 */
+		default void postOrder(int v) {
+		}
+
+		/**
+		 * Wird für eine Rückwärtskante v -&gt; w aufgerufen, d.h. w liegt noch auf dem Stack.
+		 * Der Stack enthält dann den Weg von w nach v.
+		 * @param v Knoten oben auf dem Stack.
+		 * @param w Knoten auf dem Stack.
+		 * @return false, falls die Suche abgebrochen werden soll.
+		 */
+		default boolean backEdge(int v, int w) {
+			return true;
+		}
+
+		/**
+		 * Wird für eine Kante v -&gt; w zu einem bereits abgeschlossenen Knoten w aufgerufen
+		 * (Vorwärts- oder Querkante).
+		 * @param v Knoten oben auf dem Stack.
+		 * @param w abgeschlossener Knoten.
+		 */
+		default void crossEdge(int v, int w) {
+		}
+	}
+
+	private final IntDirectedGraph graph;
+	private final boolean backward;
+
+	// 0: nicht besucht, -1: abgeschlossen, k+1: liegt auf dem Stack an Position k
+	private final int[] state;
+	private final int[] stack;
+	private final int[] cursor;
+	private int depth = 0;
+	private boolean stopped = false;
+
+	/**
+	 * Bereitet eine Tiefensuche über die Nachfolger vor.
+	 * @param g gerichteter Graph.
+	 */
+	public DepthFirstSearch(IntDirectedGraph g) {
+		this(g, false);
+	}
+
+	/**
+	 * Bereitet eine Tiefensuche vor.
+	 * @param g gerichteter Graph.
+	 * @param backward true, falls die Suche den Vorgängern folgen soll.
+	 */
+	public DepthFirstSearch(IntDirectedGraph g, boolean backward) {
+		if (g == null) {
+			throw new IllegalArgumentException("Graph can not be null.");
+		}
+		this.graph = g;
+		this.backward = backward;
+		int n = g.numberOfVertices();
+		state = new int[n];
+		stack = new int[n];
+		cursor = new int[n];
+	}
+
+	/**
+	 * Prüft, ob v schon besucht wurde.
+	 * @param v Knoten
+	 * @return true, falls v besucht wurde.
+	 */
+	public boolean isVisited(int v) {
+		return state[v] != 0;
+	}
+
+	/**
+	 * Durchsucht alle von s aus erreichbaren, noch nicht besuchten Knoten.
+	 * Die Knoten bleiben über mehrere Aufrufe hinweg besucht, so dass aufeinander folgende
+	 * Aufrufe einen Tiefensuchwald aufbauen.
+	 * @param s Startknoten; falls s schon besucht wurde, passiert nichts.
+	 * @param visitor Callbacks.
+	 * @return false, falls die Suche (jetzt oder früher) von visitor abgebrochen wurde.
+	 */
+	public boolean search(int s, Visitor visitor) {
+		if (stopped) {
+			return false;
+		}
+		if (state[s] != 0) {
+			return true;
+		}
+		push(s, visitor);
+		while (depth > 0) {
+			int k = depth - 1;
+			int v = stack[k];
+			int i = cursor[k];
+			if (i < degree(v)) {
+				cursor[k] = i + 1;
+				int w = neighbor(v, i);
+				if (state[w] == 0) {
+					push(w, visitor);
+				} else if (state[w] < 0) {
+					visitor.crossEdge(v, w);
+				} else if (!visitor.backEdge(v, w)) {
+					stopped = true;
+					return false;
+				}
+			} else {
+				depth--;
+				state[v] = -1;
+				visitor.postOrder(v);
+			}
+		}
+		return true;
+	}
+
+	private void push(int v, Visitor visitor) {
+		state[v] = depth + 1;
+		stack[depth] = v;
+		cursor[depth] = 0;
+		depth++;
+		visitor.preOrder(v);
+	}
+
+	private int degree(int v) {
+		return backward ? graph.inDegree(v) : graph.outDegree(v);
+	}
+
+	private int neighbor(int v, int i) {
+		return backward ? graph.predecessor(v, i) : graph.successor(v, i);
+	}
+
+	/**
+	 * Liefert die aktuelle Höhe des Stacks zurück.
+	 * @return Anzahl der Knoten auf dem Stack.
+	 */
+	public int depth() {
+		return depth;
+	}
+
+	/**
+	 * Liefert den Knoten an Position k des Stacks zurück (0 ist der Startknoten).
+	 * @param k Position, 0 &lt;= k &lt; depth()
+	 * @return Knoten
+	 */
+	public int vertexAt(int k) {
+		return stack[Objects.checkIndex(k, depth)];
+	}
+
+	/**
+	 * Liefert die Position von v auf dem Stack zurück.
+	 * @param v Knoten
+	 * @return Position, oder -1 falls v nicht auf dem Stack liegt.
+	 */
+	public int depthOf(int v) {
+		return state[v] > 0 ? state[v] - 1 : -1;
+	}
+}
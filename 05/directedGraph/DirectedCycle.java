@@ -15,60 +15,49 @@ import java.util.*;
 public class DirectedCycle<V> {
     // ...
     private final List<List<V>> cycles = new LinkedList<>();    // enthält alle gefundenen Zyklen
-    private final DirectedGraph<V> myGraph;
-
-    private Set<V> visited;    // enthält alle besuchten Knoten
-    private Set<V> onStack;
-    private LinkedList<V> currentPath;
-
 
     /**
      * Führt eine Tiefensuche für g durch und ermittelt dabei Zyklen.
+     * Die Tiefensuche läuft iterativ über die int-Ids der Knoten (siehe {@link DepthFirstSearch});
+     * jede Rückwärtskante liefert einen Zyklus.
      * Vorsicht: bei Graphen mit Zyklen werden nicht alle Zyklen gefunden.
      *
      * @param g gerichteter Graph.
      */
     public DirectedCycle(DirectedGraph<V> g) {
-        myGraph = g;
-        visited = new HashSet<>();
-        onStack = new HashSet<>();
-        currentPath = new LinkedList<>();
-
-        for (V v : myGraph.getVertexSet()) {
-            if (!visited.contains(v)) {
-                dfs(v);
-            }
-        }
+        this(IndexedGraph.of(g));
     }
 
-    void dfs(V v) {
-        visited.add(v);
-        onStack.add(v);
-        currentPath.add(v);
+    /**
+     * Führt eine Tiefensuche für die CSR-Darstellung g durch und ermittelt dabei Zyklen.
+     *
+     * @param g CSR-Darstellung eines gerichteten Graphen.
+     */
+    public DirectedCycle(CsrDirectedGraph<V> g) {
+        this(IndexedGraph.of(g));
+    }
 
-        for (V w : myGraph.getSuccessorVertexSet(v)) {
-            if (!visited.contains(w)) {
-                dfs(w);
-            } else if (onStack.contains(w)) {
-                // Zyklus mit hilfe von path ausgeben
+    private DirectedCycle(IndexedGraph<V> ig) {
+        VertexIndex<V> index = ig.index;
+        DepthFirstSearch dfs = new DepthFirstSearch(ig.graph);
+        DepthFirstSearch.Visitor visitor = new DepthFirstSearch.Visitor() {
+            @Override
+            public boolean backEdge(int v, int w) {
+                // Zyklus ist der Weg von w nach v auf dem Stack plus die Kante v -> w
                 List<V> cycle = new LinkedList<>();
-                boolean foundStartOfCycle = false;
-                for (V nodeInPath : currentPath){
-                    if (nodeInPath.equals(w)) {
-                        foundStartOfCycle = true;
-                    }
-                    if (foundStartOfCycle) {
-                        cycle.add(nodeInPath);
-                    }
+                for (int k = dfs.depthOf(w); k < dfs.depth(); k++) {
+                    cycle.add(index.vertex(dfs.vertexAt(k)));
                 }
-                cycle.add(w);
+                cycle.add(index.vertex(w));
                 cycles.add(cycle);
+                return true;
             }
+        };
 
+        for (int v : ig.order) {
+            dfs.search(v, visitor);
         }
-
-
-        }
+    }
 
 
         /**
@@ -140,4 +140,14 @@ public interface DirectedGraph<V> {
      * @return invertierter Graph
      */
     DirectedGraph<V> invert();
+
+	/**
+	 * Erzeugt eine unveränderliche Momentaufnahme dieses Graphen im CSR-Format.
+	 * Die Knoten bekommen die Ids 0 bis getNumberOfVertexes()-1 in der Reihenfolge von getVertexSet().
+	 * Spätere Änderungen an diesem Graphen wirken sich nicht auf die Momentaufnahme aus.
+	 * @return CSR-Darstellung
+	 */
+	default CsrDirectedGraph<V> toCsr() {
+		return CsrDirectedGraph.of(this);
+	}
 }
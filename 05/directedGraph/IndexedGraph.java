@@ -0,0 +1,59 @@
+package directedGraph;
+
+/**
+ * Sicht eines DirectedGraph&lt;V&gt; über int-Ids für die Graphalgorithmen:
+ * Graph über Ids, Abbildung zwischen Ids und Knoten
+ * und die Ids in der Reihenfolge von getVertexSet().
+ * @param <V> Knotentyp.
+ */
+final class IndexedGraph<V> {
+	final IntDirectedGraph graph;
+	final VertexIndex<V> index;
+	final int[] order;
+
+	private IndexedGraph(IntDirectedGraph graph, VertexIndex<V> index, int[] order) {
+		this.graph = graph;
+		this.index = index;
+		this.order = order;
+	}
+
+	/**
+	 * Liefert die int-Sicht von g zurück.
+	 * Eine AdjacencyListDirectedGraph wird direkt verwendet, andere Graphen werden
+	 * in die CSR-Darstellung kopiert.
+	 * @param g gerichteter Graph.
+	 * @return int-Sicht von g
+	 */
+	static <V> IndexedGraph<V> of(DirectedGraph<V> g) {
+		if (g == null) {
+			throw new IllegalArgumentException("Graph can not be null.");
+		}
+		if (g instanceof AdjacencyListDirectedGraph<?> al) {
+			@SuppressWarnings("unchecked")
+			VertexIndex<V> index = (VertexIndex<V>) al.getVertexIndex();
+			int[] order = new int[index.size()];
+			int k = 0;
+			for (V v : g.getVertexSet()) {
+				order[k++] = index.indexOf(v);
+			}
+			return new IndexedGraph<>(al, index, order);
+		}
+		return of(g.toCsr());
+	}
+
+	/**
+	 * Liefert die int-Sicht einer CSR-Darstellung zurück; die Reihenfolge ist die der Ids.
+	 * @param g CSR-Darstellung.
+	 * @return int-Sicht von g
+	 */
+	static <V> IndexedGraph<V> of(CsrDirectedGraph<V> g) {
+		if (g == null) {
+			throw new IllegalArgumentException("Graph can not be null.");
+		}
+		int[] order = new int[g.numberOfVertices()];
+		for (int v = 0; v < order.length; v++) {
+			order[v] = v;
+		}
+		return new IndexedGraph<>(g, g.getVertexIndex(), order);
+	}
+}
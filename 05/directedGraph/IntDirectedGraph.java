@@ -0,0 +1,54 @@
+package directedGraph;
+
+/**
+ * Gerichteter Graph mit den Knoten 0, 1, ..., numberOfVertices()-1.
+ * <p>
+ * Die Nachfolger (Vorgänger) eines Knotens werden über ihre Position 0 bis outDegree(v)-1
+ * (inDegree(v)-1) angesprochen. Damit kommen Graphalgorithmen ohne Maps,
+ * Iteratoren und geboxte Werte aus; die Knoten vom Typ V liefert ein {@link VertexIndex}.
+ */
+public interface IntDirectedGraph {
+	/**
+	 * Liefert Anzahl der Knoten im Graph zurück.
+	 * @return Knotenzahl.
+	 */
+	int numberOfVertices();
+
+	/**
+	 * Liefert Ausgangsgrad des Knotens v zurück.
+	 * @param v Knoten
+	 * @return Knotenausgangsgrad
+	 */
+	int outDegree(int v);
+
+	/**
+	 * Liefert den i-ten Nachfolger von v zurück.
+	 * @param v Knoten
+	 * @param i Position, 0 &lt;= i &lt; outDegree(v)
+	 * @return Nachfolgerknoten
+	 */
+	int successor(int v, int i);
+
+	/**
+	 * Liefert das Gewicht der Kante von v zum i-ten Nachfolger von v zurück.
+	 * @param v Knoten
+	 * @param i Position, 0 &lt;= i &lt; outDegree(v)
+	 * @return Gewicht der Kante.
+	 */
+	double weight(int v, int i);
+
+	/**
+	 * Liefert Eingangsgrad des Knotens v zurück.
+	 * @param v Knoten
+	 * @return Knoteneingangsgrad
+	 */
+	int inDegree(int v);
+
+	/**
+	 * Liefert den i-ten Vorgänger von v zurück.
+	 * @param v Knoten
+	 * @param i Position, 0 &lt;= i &lt; inDegree(v)
+	 * @return Vorgängerknoten
+	 */
+	int predecessor(int v, int i);
+}
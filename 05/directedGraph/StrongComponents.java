@@ -19,38 +19,56 @@ public class StrongComponents<V> {
 	// Anzahl der Komponenten:
 	private int numberOfComp = 0;
 
-	private Set<V> visited;
-	private LinkedList<V> postOrder;
-
-
 	/**
 	 * Ermittelt alle strengen Komponenten mit
 	 * dem Kosaraju-Sharir Algorithmus.
+	 * Die Tiefensuchen laufen iterativ über die int-Ids der Knoten (siehe {@link DepthFirstSearch});
+	 * die zweite Tiefensuche folgt den Vorgängern, der invertierte Graph wird nicht gebaut.
 	 * @param g gerichteter Graph.
 	 */
 	public StrongComponents(DirectedGraph<V> g) {
-		if (g == null){
-			throw new IllegalArgumentException("Graph can not be null.");
-		}
+		this(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Ermittelt alle strengen Komponenten der CSR-Darstellung g.
+	 * @param g CSR-Darstellung eines gerichteten Graphen.
+	 */
+	public StrongComponents(CsrDirectedGraph<V> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	private StrongComponents(IndexedGraph<V> ig) {
+		int n = ig.graph.numberOfVertices();
 
-		visited = new HashSet<>();
-		postOrder = new LinkedList<>();
+		// umgekehrte Post-Order der ersten Tiefensuche:
+		int[] postOrder = new int[n];
+		DepthFirstSearch dfs = new DepthFirstSearch(ig.graph);
+		DepthFirstSearch.Visitor postOrderVisitor = new DepthFirstSearch.Visitor() {
+			private int start = n;
 
-		for (V v : g.getVertexSet()) {
-			if(!visited.contains(v)) {
-				dfs(g, v);
+			@Override
+			public void postOrder(int v) {
+				postOrder[--start] = v;
 			}
+		};
+		for (int v : ig.order) {
+			dfs.search(v, postOrderVisitor);
 		}
 
-		DirectedGraph<V>gT = g.invert();
-
-		visited.clear();
+		// Tiefensuche im invertierten Graphen, d.h. über die Vorgänger:
+		DepthFirstSearch dfs2 = new DepthFirstSearch(ig.graph, true);
 		numberOfComp = 0;
 
-		for (V v : postOrder) {
-			if (!visited.contains(v)){
+		for (int v : postOrder) {
+			if (!dfs2.isVisited(v)){
 				Set<V> currentSCC = new TreeSet<>();
-				dfs2(gT, v, currentSCC);
+				dfs2.search(v, new DepthFirstSearch.Visitor() {
+					@Override
+					public void preOrder(int w) {
+						currentSCC.add(ig.index.vertex(w));
+					}
+				});
 				if (!currentSCC.isEmpty()){
 					comp.put(numberOfComp, currentSCC);
 					numberOfComp++;
@@ -59,26 +77,6 @@ public class StrongComponents<V> {
 		}
 	}
 
-	private void dfs(DirectedGraph<V> g, V u){
-		visited.add(u);
-		for (V v : g.getSuccessorVertexSet(u)) {
-			if (!visited.contains(v)) {
-				dfs(g, v);
-			}
-		}
-		postOrder.addFirst(u);
-	}
-
-	private void dfs2(DirectedGraph<V> g, V u, Set<V> currentSCC){
-		visited.add(u);
-		currentSCC.add(u);
-		for (V v : g.getSuccessorVertexSet(u)) {
-			if (!visited.contains(v)) {
-				dfs2(g, v, currentSCC);
-			}
-		}
-	}
-
 
 	/**
 	 *
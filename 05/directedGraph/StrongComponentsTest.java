@@ -0,0 +1,57 @@
+package directedGraph;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Vergleicht ParallelStrongComponents mit StrongComponents auf Zufallsgraphen:
+ * Anzahl, Nummerierung und Knoten der Komponenten müssen identisch sein.
+ * Die großen Graphen haben mehr verbliebene Knoten als die sequentielle Schwelle,
+ * damit auch die FW-BW-Zerlegung geprüft wird. Ein Fehler wirft einen AssertionError.
+ */
+public class StrongComponentsTest {
+
+	public static void main(String[] args) {
+		ForkJoinPool single = new ForkJoinPool(1);
+		for (int seed = 0; seed < 200; seed++) {
+			Random random = new Random(seed);
+			int n = 1 + random.nextInt(seed < 150 ? 60 : 30_000);
+			AdjacencyListDirectedGraph<Integer> g = randomGraph(random, n, 1 + random.nextInt(3));
+
+			compare(seed, new StrongComponents<>(g), new ParallelStrongComponents<>(g));
+			CsrDirectedGraph<Integer> csr = g.toCsr();
+			compare(seed, new StrongComponents<>(csr), new ParallelStrongComponents<>(csr, single));
+		}
+		single.shutdown();
+		System.out.println("ParallelStrongComponents stimmt mit StrongComponents überein");
+	}
+
+	// Zufallsgraph mit isolierten Knoten, Zyklen und Ketten
+	private static AdjacencyListDirectedGraph<Integer> randomGraph(Random random, int n, int degree) {
+		AdjacencyListDirectedGraph<Integer> g = new AdjacencyListDirectedGraph<>();
+		for (int i = 0; i < n; i++) {
+			g.addVertex(random.nextInt(2 * n));
+		}
+		for (int i = degree * n; i > 0; i--) {
+			g.addEdge(random.nextInt(2 * n), random.nextInt(2 * n));
+		}
+		return g;
+	}
+
+	private static <V> void compare(int seed, StrongComponents<V> expected, ParallelStrongComponents<V> actual) {
+		check(expected.numberOfComp() == actual.numberOfComp(), seed, "Anzahl der Komponenten");
+		for (int i = 0; i < expected.numberOfComp(); i++) {
+			check(expected.getComp(i).equals(actual.getComp(i)), seed, "Komponente " + i);
+			for (V v : expected.getComp(i)) {
+				check(actual.getCompOf(v) == i, seed, "getCompOf(" + v + ")");
+			}
+		}
+		check(expected.toString().equals(actual.toString()), seed, "toString");
+	}
+
+	private static void check(boolean condition, int seed, String message) {
+		if (!condition) {
+			throw new AssertionError("seed " + seed + ": " + message);
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package directedGraph;
+
+import java.util.*;
+
+/**
+ * Klasse für die Bestimmung aller strengen Zusammenhangskomponenten
+ * mit dem Algorithmus von Tarjan in der speichersparenden Variante von Pearce.
+ * <p>
+ * Im Gegensatz zu {@link StrongComponents} (Kosaraju-Sharir) genügt eine einzige
+ * Tiefensuche über die Nachfolger; der invertierte Graph wird nicht gebraucht.
+ * Pro Knoten werden nur ein int-Wert rindex, ein Root-Flag und ein Platz auf dem
+ * Komponenten-Stack benötigt (plus die iterative Tiefensuche, siehe {@link DepthFirstSearch}).
+ * Nach der Suche enthält rindex die Komponentennummer jedes Knotens.
+ * <p>
+ * Die Komponenten sind in topologischer Reihenfolge des Komponentengraphen durchnummeriert:
+ * für jede Kante u -&gt; v gilt Komponente(u) &lt;= Komponente(v).
+ *
+ * @param <V> Knotentyp.
+ */
+public class TarjanStrongComponents<V> {
+
+	private final ComponentSets<V> components;
+
+	/**
+	 * Ermittelt alle strengen Komponenten mit dem Algorithmus von Pearce.
+	 * @param g gerichteter Graph.
+	 */
+	public TarjanStrongComponents(DirectedGraph<V> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	/**
+	 * Ermittelt alle strengen Komponenten der CSR-Darstellung g.
+	 * @param g CSR-Darstellung eines gerichteten Graphen.
+	 */
+	public TarjanStrongComponents(CsrDirectedGraph<V> g) {
+		this(IndexedGraph.of(g));
+	}
+
+	private TarjanStrongComponents(IndexedGraph<V> ig) {
+		int[] comp = new int[ig.graph.numberOfVertices()];
+		int numberOfComp = components(ig.graph, ig.order, comp);
+		components = new ComponentSets<>(ig.index, comp, numberOfComp, ig.order);
+	}
+
+	/**
+	 * Ermittelt die strengen Komponenten von g mit dem Algorithmus von Pearce.
+	 * @param g gerichteter Graph.
+	 * @param order Reihenfolge der Startknoten der Tiefensuche.
+	 * @param comp Feld für die Komponente jedes Knotens, topologisch nummeriert.
+	 * @return Anzahl der Komponenten.
+	 */
+	static int components(IntDirectedGraph g, int[] order, int[] comp) {
+		int n = g.numberOfVertices();
+
+		// rindex: während der Suche der kleinste erreichbare Besuchsindex,
+		// für zugeordnete Knoten die Komponente (von n-1 abwärts vergeben).
+		int[] rindex = comp;
+		boolean[] root = new boolean[n];
+		int[] stack = new int[n];
+		DepthFirstSearch dfs = new DepthFirstSearch(g);
+
+		DepthFirstSearch.Visitor visitor = new DepthFirstSearch.Visitor() {
+			private int visitIndex = 0;
+			private int c = n - 1;
+			private int sp = 0;
+
+			@Override
+			public void preOrder(int v) {
+				rindex[v] = visitIndex++;
+				root[v] = true;
+			}
+
+			@Override
+			public void postOrder(int v) {
+				if (root[v]) {
+					// v ist Wurzel einer Komponente: v und alle Knoten darüber auf dem Stack
+					visitIndex--;
+					while (sp > 0 && rindex[v] <= rindex[stack[sp - 1]]) {
+						rindex[stack[--sp]] = c;
+						visitIndex--;
+					}
+					rindex[v] = c;
+					c--;
+				} else {
+					stack[sp++] = v;
+				}
+				if (dfs.depth() > 0) {
+					update(dfs.vertexAt(dfs.depth() - 1), v);
+				}
+			}
+
+			@Override
+			public boolean backEdge(int v, int w) {
+				update(v, w);
+				return true;
+			}
+
+			@Override
+			public void crossEdge(int v, int w) {
+				update(v, w);
+			}
+
+			// Kante v -> w: w erreicht einen früher besuchten Knoten der Komponente von v
+			private void update(int v, int w) {
+				if (rindex[w] < rindex[v]) {
+					rindex[v] = rindex[w];
+					root[v] = false;
+				}
+			}
+		};
+		for (int v : order) {
+			dfs.search(v, visitor);
+		}
+
+		// Die zuerst abgeschlossene Komponente hat rindex n-1 und ist eine Senke;
+		// umnummerieren in topologische Reihenfolge 0, 1, ..., numberOfComp-1.
+		int minIndex = n;
+		for (int v = 0; v < n; v++) {
+			minIndex = Math.min(minIndex, rindex[v]);
+		}
+		for (int v = 0; v < n; v++) {
+			rindex[v] -= minIndex;
+		}
+		return n - minIndex;
+	}
+
+	/**
+	 *
+	 * @return Anzahl der strengen Zusammenhangskomponenten.
+	 */
+	public int numberOfComp() {
+		return components.numberOfComp();
+	}
+
+	/**
+	 * Liefert eine nicht modifizierbare Sicht auf alle Knoten der i-ten strengen
+	 * Zusammenhangskomponente zurück.
+	 * Die Komponenten sind durchnummeriert von 0 bis numberOfComp()-1.
+	 * @param i Nummer der Komponente.
+	 * @return alle Knoten der i-ten strengen Zusammenhangskomponente, null falls es sie nicht gibt.
+	 */
+	public Set<V> getComp(int i) {
+		return components.getComp(i);
+	}
+
+	/**
+	 * Liefert die Nummer der strengen Zusammenhangskomponente von v zurück.
+	 * @param v Knoten
+	 * @throws IllegalArgumentException falls Knoten v nicht im Graph vorhanden ist.
+	 * @return Nummer der Komponente.
+	 */
+	public int getCompOf(V v) {
+		return components.getCompOf(v);
+	}
+
+	@Override
+	public String toString() {
+		return components.toString();
+	}
+
+
+	public static void main(String[] args) {
+		DirectedGraph<Integer> g = new AdjacencyListDirectedGraph<>();
+		g.addEdge(1,2);
+		g.addEdge(1,3);
+		g.addEdge(2,1);
+		g.addEdge(2,3);
+		g.addEdge(3,1);
+
+		g.addEdge(1,4);
+		g.addEdge(5,4);
+
+		g.addEdge(5,7);
+		g.addEdge(6,5);
+		g.addEdge(7,6);
+
+		g.addEdge(7,8);
+		g.addEdge(8,2);
+
+		TarjanStrongComponents<Integer> sc = new TarjanStrongComponents<>(g);
+
+		System.out.println(sc.numberOfComp());  // 4
+
+		System.out.println(sc);
+			// Component 0: 5, 6, 7
+			// Component 1: 8
+			// Component 2: 1, 2, 3
+			// Component 3: 4
+	}
+}
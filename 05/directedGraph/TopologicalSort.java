@@ -16,49 +16,49 @@ public class TopologicalSort<V> {
     private List<V> ts = new LinkedList<>(); // topologisch sortierte Folge
 	private boolean hasCycle = false; // Flag zur Zykluserkennung
 
-	private Set<V> visited;
-	private Set<V> onStack;
-
 	/**
 	 * Führt eine topologische Sortierung für g mit Tiefensuche durch.
+	 * Die Tiefensuche läuft iterativ über die int-Ids der Knoten (siehe {@link DepthFirstSearch}).
 	 * @param g gerichteter Graph.
 	 */
 	public TopologicalSort(DirectedGraph<V> g) {
-		visited = new HashSet<>();
-		onStack = new HashSet<>();
-
-		for (V v : g.getVertexSet()) {
-			if (!visited.contains(v)) {
-				dfs(g, v);
-			}
-		}
-
-		if (hasCycle) {
-			ts.clear();
-		}
-    }
-
-	private void dfs(DirectedGraph<V> g, V u){
-		visited.add(u);
-		onStack.add(u);
+		this(IndexedGraph.of(g));
+	}
 
+	/**
+	 * Führt eine topologische Sortierung für die CSR-Darstellung g durch.
+	 * @param g CSR-Darstellung eines gerichteten Graphen.
+	 */
+	public TopologicalSort(CsrDirectedGraph<V> g) {
+		this(IndexedGraph.of(g));
+	}
 
-		for (V v : g.getSuccessorVertexSet(u)) {
-			if (hasCycle) {
-				return; // Zyklus bereits gefunden, Abbruch
+	private TopologicalSort(IndexedGraph<V> ig) {
+		DepthFirstSearch dfs = new DepthFirstSearch(ig.graph);
+		DepthFirstSearch.Visitor visitor = new DepthFirstSearch.Visitor() {
+			@Override
+			public void postOrder(int v) {
+				ts.add(0, ig.index.vertex(v)); // Füge v am Anfang der Liste hinzu (Post-Order-Verarbeitung)
 			}
-			if (!visited.contains(v)) {
-				dfs(g, v);
-			} else if (onStack.contains(v)) {
+
+			@Override
+			public boolean backEdge(int v, int w) {
 				// Rückwärtskante gefunden, Graph hat einen Zyklus
 				hasCycle = true;
-				return;
+				return false;
+			}
+		};
+
+		for (int v : ig.order) {
+			if (!dfs.search(v, visitor)) {
+				break; // Zyklus gefunden, Abbruch
 			}
 		}
 
-		onStack.remove(u); // Knoten u verlässt den Rekursionsstack
-		ts.add(0, u);      // Füge u am Anfang der Liste hinzu (Post-Order-Verarbeitung)
-	}
+		if (hasCycle) {
+			ts.clear();
+		}
+    }
     
 	/**
 	 * Liefert eine nicht modifizierbare Liste (unmodifiable view) zurück,
@@ -0,0 +1,60 @@
+package directedGraph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bidirektionale Abbildung zwischen Knoten und dichten int-Ids 0, 1, ..., size()-1.
+ * Die Ids werden in der Reihenfolge des Einfügens vergeben und ändern sich nicht.
+ * <p>
+ * Beachte: equals und hashCode von V müssen zu compareTo konsistent sein.
+ * @param <V> Knotentyp.
+ */
+public final class VertexIndex<V> {
+	private final Map<V, Integer> ids = new HashMap<>();
+	private final List<V> vertices = new ArrayList<>();
+
+	/**
+	 * Vergibt für v eine neue Id, falls v noch keine hat.
+	 * @param v Knoten
+	 * @return Id von v.
+	 */
+	int add(V v) {
+		Integer id = ids.putIfAbsent(v, vertices.size());
+		if (id != null) {
+			return id;
+		}
+		vertices.add(v);
+		return vertices.size() - 1;
+	}
+
+	/**
+	 * Liefert die Id von v zurück.
+	 * @param v Knoten
+	 * @return Id von v, oder -1 falls v keine Id hat.
+	 */
+	public int indexOf(V v) {
+		Integer id = ids.get(v);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Liefert den Knoten mit der Id id zurück.
+	 * @param id Id
+	 * @throws IndexOutOfBoundsException falls id keine gültige Id ist.
+	 * @return Knoten
+	 */
+	public V vertex(int id) {
+		return vertices.get(id);
+	}
+
+	/**
+	 * Liefert die Anzahl der Knoten zurück.
+	 * @return Knotenzahl.
+	 */
+	public int size() {
+		return vertices.size();
+	}
+}